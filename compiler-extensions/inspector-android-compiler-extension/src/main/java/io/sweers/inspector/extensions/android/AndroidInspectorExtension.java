@@ -65,7 +65,7 @@ import javax.lang.model.element.AnnotationMirror;
       long to = intRange.to();
       if (from != Long.MIN_VALUE) {
         validationBlock.beginControlFlow("if ($L < $L)", variableName, from)
-            .addStatement("throw new $T(\"$L must be greater than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L must be greater than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 from,
@@ -74,7 +74,7 @@ import javax.lang.model.element.AnnotationMirror;
       }
       if (to != Long.MAX_VALUE) {
         validationBlock.beginControlFlow("else if ($L > $L)", variableName, to)
-            .addStatement("throw new $T(\"$L must be less than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L must be less than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 to,
@@ -88,7 +88,7 @@ import javax.lang.model.element.AnnotationMirror;
       double to = floatRange.to();
       if (from != Double.NEGATIVE_INFINITY) {
         validationBlock.beginControlFlow("if ($L < $L)", variableName, from)
-            .addStatement("throw new $T(\"$L must be greater than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L must be greater than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 from,
@@ -97,7 +97,7 @@ import javax.lang.model.element.AnnotationMirror;
       }
       if (to != Double.POSITIVE_INFINITY) {
         validationBlock.beginControlFlow("else if ($L > $L)", variableName, to)
-            .addStatement("throw new $T(\"$L must be less than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L must be less than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 to,
@@ -120,7 +120,7 @@ import javax.lang.model.element.AnnotationMirror;
       long multiple = size.multiple();
       if (exact != -1) {
         validationBlock.beginControlFlow("if ($L != $L)", sizeVar, exact)
-            .addStatement("throw new $T(\"$L's size must be exactly $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L's size must be exactly $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 exact,
@@ -129,7 +129,7 @@ import javax.lang.model.element.AnnotationMirror;
       }
       if (min != Long.MIN_VALUE) {
         validationBlock.beginControlFlow("if ($L < $L)", sizeVar, min)
-            .addStatement("throw new $T(\"$L's size must be greater than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L's size must be greater than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 min,
@@ -138,7 +138,7 @@ import javax.lang.model.element.AnnotationMirror;
       }
       if (max != Long.MAX_VALUE) {
         validationBlock.beginControlFlow("if ($L > $L)", sizeVar, max)
-            .addStatement("throw new $T(\"$L's size must be less than $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L's size must be less than $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 max,
@@ -147,7 +147,7 @@ import javax.lang.model.element.AnnotationMirror;
       }
       if (multiple != 1) {
         validationBlock.beginControlFlow("if ($L % $L != 0)", sizeVar, multiple)
-            .addStatement("throw new $T(\"$L's size must be a multiple of $L but is \" + $L)",
+            .addStatement("throw $T.format(\"$L's size must be a multiple of $L but is %s\", $L)",
                 ValidationException.class,
                 prop.methodName,
                 multiple,
@@ -165,7 +165,8 @@ import javax.lang.model.element.AnnotationMirror;
                   .stream()
                   .map(l -> variableName + " != " + l)
                   .collect(Collectors.toList())))
-          .addStatement("throw new $T(\"$L's value must be within scope of its IntDef. Is \" + $L)",
+          .addStatement(
+              "throw $T.format(\"$L's value must be within scope of its IntDef. Is %s\", $L)",
               ValidationException.class,
               prop.methodName,
               variableName)
@@ -181,7 +182,8 @@ import javax.lang.model.element.AnnotationMirror;
                   .stream()
                   .map(l -> variableName + " != " + l + "L")
                   .collect(Collectors.toList())))
-          .addStatement("throw new $T(\"$L's value must be within scope of its LongDef. Is \" + $L)",
+          .addStatement(
+              "throw $T.format(\"$L's value must be within scope of its LongDef. Is %s\", $L)",
               ValidationException.class,
               prop.methodName,
               variableName)
@@ -197,7 +199,7 @@ import javax.lang.model.element.AnnotationMirror;
                   .map(s -> "\"" + s + "\".equals(" + variableName + ")")
                   .collect(Collectors.toList())))
           .addStatement(
-              "throw new $T(\"$L's value must be within scope of its StringDef. Is \" + $L)",
+              "throw $T.format(\"$L's value must be within scope of its StringDef. Is %s\", $L)",
               ValidationException.class,
               prop.methodName,
               variableName)
@@ -20,6 +20,7 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import com.squareup.javapoet.WildcardTypeName;
 import io.sweers.inspector.CompositeValidator;
+import io.sweers.inspector.ErrorPolicy;
 import io.sweers.inspector.Inspector;
 import io.sweers.inspector.InspectorIgnored;
 import io.sweers.inspector.SelfValidating;
@@ -322,6 +323,8 @@ import static javax.lang.model.element.Modifier.STATIC;
         ParameterizedTypeName.get(ClassName.get(Validator.class), targetClassName);
 
     ImmutableMap<Property, FieldSpec> validators = createFields(properties);
+    FieldSpec errorPolicy = FieldSpec.builder(ErrorPolicy.class, "errorPolicy", PRIVATE, FINAL)
+        .build();
 
     ParameterSpec inspector = ParameterSpec.builder(Inspector.class, "inspector")
         .build();
@@ -336,6 +339,7 @@ import static javax.lang.model.element.Modifier.STATIC;
           .build();
       constructor.addParameter(type);
     }
+    constructor.addStatement("this.$N = $N.errorPolicy()", errorPolicy, inspector);
 
     boolean needsValidatorMethod = false;
     for (Map.Entry<Property, FieldSpec> entry : validators.entrySet()) {
@@ -374,11 +378,12 @@ import static javax.lang.model.element.Modifier.STATIC;
               .map(ClassName::get)
               .toArray(ClassName[]::new);
           CodeBlock validatorsCodeBlock = CodeBlock.of(validatorsString, (Object[]) arguments);
-          constructor.addStatement("this.$N = $T.<$T>of($L)",
+          constructor.addStatement("this.$N = $T.<$T>of($L).withPolicyOf($N)",
               field,
               CompositeValidator.class,
               prop.type,
-              validatorsCodeBlock);
+              validatorsCodeBlock,
+              inspector);
         }
       } else if (usesValidationQualifier) {
         constructor.addStatement("this.$N = validator($N, \"$L\")",
@@ -413,9 +418,10 @@ import static javax.lang.model.element.Modifier.STATIC;
     TypeSpec.Builder classBuilder = TypeSpec.classBuilder("Validator_" + simpleName)
         .addModifiers(FINAL)
         .superclass(validatorClass)
+        .addField(errorPolicy)
         .addFields(validators.values())
         .addMethod(constructor.build())
-        .addMethod(createValidationMethod(targetClassName, validators));
+        .addMethod(createValidationMethod(targetClassName, errorPolicy, validators));
 
     if (genericTypeNames != null) {
       classBuilder.addTypeVariables(Arrays.asList(genericTypeNames));
@@ -450,6 +456,7 @@ import static javax.lang.model.element.Modifier.STATIC;
   }
 
   private MethodSpec createValidationMethod(TypeName targetClassName,
+      FieldSpec errorPolicy,
       ImmutableMap<Property, FieldSpec> validators) {
     String valueName = "value";
     ParameterSpec value = ParameterSpec.builder(targetClassName, valueName)
@@ -460,8 +467,17 @@ import static javax.lang.model.element.Modifier.STATIC;
         .addParameter(value)
         .addException(ValidationException.class);
 
-    // Go through validators
     NameAllocator allocator = new NameAllocator();
+    // Locals named after properties mustn't shadow the policy.
+    allocator.newName(errorPolicy.name);
+    String failures = allocator.newName("failures");
+    String exception = allocator.newName("e");
+    // Failures are collected per the inspector's policy, which throws the first one right away
+    // when it fails fast.
+    validateMethod.addStatement("$T<$T> $L = null", List.class, ValidationException.class, failures)
+        .addCode("\n");
+
+    // Go through validators
     validators.entrySet()
         .stream()
         .filter(entry -> entry.getKey()
@@ -471,6 +487,7 @@ import static javax.lang.model.element.Modifier.STATIC;
           FieldSpec validator = entry.getValue();
           String name = allocator.newName(entry.getKey().methodName);
           validateMethod.addComment("Begin validation for \"$L()\"", prop.methodName)
+              .beginControlFlow("try")
               .addStatement("$T $L = $N.$L()", prop.type, name, value, prop.methodName)
               .addCode("\n");
           extensions.stream()
@@ -484,8 +501,17 @@ import static javax.lang.model.element.Modifier.STATIC;
                 }
               });
           validateMethod.addStatement("$N.validate($L)", validator, name)
+              .nextControlFlow("catch ($T $L)", ValidationException.class, exception)
+              .addStatement("$L = $N.collect($L, $L.prependProperty($S))",
+                  failures,
+                  errorPolicy,
+                  failures,
+                  exception,
+                  prop.methodName)
+              .endControlFlow()
               .addCode("\n");
         });
+    validateMethod.addStatement("$N.throwIfAny($L)", errorPolicy, failures);
 
     return validateMethod.build();
   }
@@ -1,5 +1,6 @@
 package io.sweers.inspector.sample;
 
+import io.sweers.inspector.ErrorPolicy;
 import io.sweers.inspector.Inspector;
 import io.sweers.inspector.Types;
 import io.sweers.inspector.ValidationException;
@@ -10,6 +11,8 @@ import java.util.Map;
 import java.util.Set;
 
 final class Validator_Person extends Validator<Person> {
+  private final ErrorPolicy errorPolicy;
+
   private final Validator<String> firstNameValidator;
 
   private final Validator<String> lastNameValidator;
@@ -45,6 +48,7 @@ final class Validator_Person extends Validator<Person> {
   private final Validator<Boolean> checkMustBeFalseValidator;
 
   public Validator_Person(Inspector inspector) {
+    this.errorPolicy = inspector.errorPolicy();
     this.firstNameValidator = inspector.validator(String.class);
     this.lastNameValidator = inspector.validator(String.class);
     this.favoriteNumbersValidator = inspector.validator(int[].class);
@@ -66,169 +70,236 @@ final class Validator_Person extends Validator<Person> {
 
   @Override
   public void validate(Person value) throws ValidationException {
-    // Begin validation for "firstName()"
-    String firstName = value.firstName();
+    List<ValidationException> failures = null;
 
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (firstName == null) {
-      throw new ValidationException("firstName() is not nullable but returns a null");
+    // Begin validation for "firstName()"
+    try {
+      String firstName = value.firstName();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (firstName == null) {
+        throw new ValidationException("firstName() is not nullable but returns a null");
+      }
+      firstNameValidator.validate(firstName);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("firstName"));
     }
-    firstNameValidator.validate(firstName);
 
     // Begin validation for "lastName()"
-    String lastName = value.lastName();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (lastName == null) {
-      throw new ValidationException("lastName() is not nullable but returns a null");
+    try {
+      String lastName = value.lastName();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (lastName == null) {
+        throw new ValidationException("lastName() is not nullable but returns a null");
+      }
+      lastNameValidator.validate(lastName);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("lastName"));
     }
-    lastNameValidator.validate(lastName);
 
     // Begin validation for "favoriteNumbers()"
-    int[] favoriteNumbers = value.favoriteNumbers();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (favoriteNumbers == null) {
-      throw new ValidationException("favoriteNumbers() is not nullable but returns a null");
+    try {
+      int[] favoriteNumbers = value.favoriteNumbers();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (favoriteNumbers == null) {
+        throw new ValidationException("favoriteNumbers() is not nullable but returns a null");
+      }
+      favoriteNumbersValidator.validate(favoriteNumbers);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("favoriteNumbers"));
     }
-    favoriteNumbersValidator.validate(favoriteNumbers);
 
     // Begin validation for "aList()"
-    List<String> aList = value.aList();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (aList == null) {
-      throw new ValidationException("aList() is not nullable but returns a null");
+    try {
+      List<String> aList = value.aList();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (aList == null) {
+        throw new ValidationException("aList() is not nullable but returns a null");
+      }
+      aListValidator.validate(aList);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("aList"));
     }
-    aListValidator.validate(aList);
 
     // Begin validation for "aMap()"
-    Map<String, String> aMap = value.aMap();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (aMap == null) {
-      throw new ValidationException("aMap() is not nullable but returns a null");
+    try {
+      Map<String, String> aMap = value.aMap();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (aMap == null) {
+        throw new ValidationException("aMap() is not nullable but returns a null");
+      }
+      aMapValidator.validate(aMap);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("aMap"));
     }
-    aMapValidator.validate(aMap);
 
     // Begin validation for "favoriteFoods()"
-    Set<String> favoriteFoods = value.favoriteFoods();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (favoriteFoods == null) {
-      throw new ValidationException("favoriteFoods() is not nullable but returns a null");
+    try {
+      Set<String> favoriteFoods = value.favoriteFoods();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (favoriteFoods == null) {
+        throw new ValidationException("favoriteFoods() is not nullable but returns a null");
+      }
+      favoriteFoodsValidator.validate(favoriteFoods);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("favoriteFoods"));
     }
-    favoriteFoodsValidator.validate(favoriteFoods);
 
     // Begin validation for "stringDefChecked()"
-    String stringDefChecked = value.stringDefChecked();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (stringDefChecked == null) {
-      throw new ValidationException("stringDefChecked() is not nullable but returns a null");
+    try {
+      String stringDefChecked = value.stringDefChecked();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (stringDefChecked == null) {
+        throw new ValidationException("stringDefChecked() is not nullable but returns a null");
+      }
+      // Validations contributed by "AndroidInspectorExtension"
+      if (!("foo".equals(stringDefChecked) && "foo2".equals(stringDefChecked))) {
+        throw ValidationException.format("stringDefChecked's value must be within scope of its StringDef. Is %s", stringDefChecked);
+      }
+      stringDefCheckedValidator.validate(stringDefChecked);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("stringDefChecked"));
     }
-    // Validations contributed by "AndroidInspectorExtension"
-    if (!("foo".equals(stringDefChecked) && "foo2".equals(stringDefChecked))) {
-      throw new ValidationException("stringDefChecked's value must be within scope of its StringDef. Is " + stringDefChecked);
-    }
-    stringDefCheckedValidator.validate(stringDefChecked);
 
     // Begin validation for "intDefChecked()"
-    int intDefChecked = value.intDefChecked();
-
-    // Validations contributed by "AndroidInspectorExtension"
-    if (!(intDefChecked != 0)) {
-      throw new ValidationException("intDefChecked's value must be within scope of its IntDef. Is " + intDefChecked);
+    try {
+      int intDefChecked = value.intDefChecked();
+
+      // Validations contributed by "AndroidInspectorExtension"
+      if (!(intDefChecked != 0)) {
+        throw ValidationException.format("intDefChecked's value must be within scope of its IntDef. Is %s", intDefChecked);
+      }
+      intDefCheckedValidator.validate(intDefChecked);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("intDefChecked"));
     }
-    intDefCheckedValidator.validate(intDefChecked);
 
     // Begin validation for "age()"
-    int age = value.age();
-
-    // Validations contributed by "AndroidInspectorExtension"
-    if (age < 0) {
-      throw new ValidationException("age must be greater than 0 but is " + age);
+    try {
+      int age = value.age();
+
+      // Validations contributed by "AndroidInspectorExtension"
+      if (age < 0) {
+        throw ValidationException.format("age must be greater than 0 but is %s", age);
+      }
+      ageValidator.validate(age);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("age"));
     }
-    ageValidator.validate(age);
 
     // Begin validation for "occupation()"
-    String occupation = value.occupation();
+    try {
+      String occupation = value.occupation();
 
-    occupationValidator.validate(occupation);
+      occupationValidator.validate(occupation);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("occupation"));
+    }
 
     // Begin validation for "doublesOfStrings()"
-    List<String> doublesOfStrings = value.doublesOfStrings();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (doublesOfStrings == null) {
-      throw new ValidationException("doublesOfStrings() is not nullable but returns a null");
-    }
-    // Validations contributed by "AndroidInspectorExtension"
-    int doublesOfStringsSize = doublesOfStrings.size();
-    if (doublesOfStringsSize % 2 != 0) {
-      throw new ValidationException("doublesOfStrings's size must be a multiple of 2 but is " + doublesOfStringsSize);
+    try {
+      List<String> doublesOfStrings = value.doublesOfStrings();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (doublesOfStrings == null) {
+        throw new ValidationException("doublesOfStrings() is not nullable but returns a null");
+      }
+      // Validations contributed by "AndroidInspectorExtension"
+      int doublesOfStringsSize = doublesOfStrings.size();
+      if (doublesOfStringsSize % 2 != 0) {
+        throw ValidationException.format("doublesOfStrings's size must be a multiple of 2 but is %s", doublesOfStringsSize);
+      }
+      doublesOfStringsValidator.validate(doublesOfStrings);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("doublesOfStrings"));
     }
-    doublesOfStringsValidator.validate(doublesOfStrings);
 
     // Begin validation for "threePairs()"
-    Map<String, String> threePairs = value.threePairs();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (threePairs == null) {
-      throw new ValidationException("threePairs() is not nullable but returns a null");
-    }
-    // Validations contributed by "AndroidInspectorExtension"
-    int threePairsSize = threePairs.size();
-    if (threePairsSize != 3) {
-      throw new ValidationException("threePairs's size must be exactly 3 but is " + threePairsSize);
+    try {
+      Map<String, String> threePairs = value.threePairs();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (threePairs == null) {
+        throw new ValidationException("threePairs() is not nullable but returns a null");
+      }
+      // Validations contributed by "AndroidInspectorExtension"
+      int threePairsSize = threePairs.size();
+      if (threePairsSize != 3) {
+        throw ValidationException.format("threePairs's size must be exactly 3 but is %s", threePairsSize);
+      }
+      threePairsValidator.validate(threePairs);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("threePairs"));
     }
-    threePairsValidator.validate(threePairs);
 
     // Begin validation for "atLeastThreeStrings()"
-    Set<String> atLeastThreeStrings = value.atLeastThreeStrings();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (atLeastThreeStrings == null) {
-      throw new ValidationException("atLeastThreeStrings() is not nullable but returns a null");
+    try {
+      Set<String> atLeastThreeStrings = value.atLeastThreeStrings();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (atLeastThreeStrings == null) {
+        throw new ValidationException("atLeastThreeStrings() is not nullable but returns a null");
+      }
+      // Validations contributed by "AndroidInspectorExtension"
+      int atLeastThreeStringsSize = atLeastThreeStrings.size();
+      if (atLeastThreeStringsSize < 3) {
+        throw ValidationException.format("atLeastThreeStrings's size must be greater than 3 but is %s", atLeastThreeStringsSize);
+      }
+      atLeastThreeStringsValidator.validate(atLeastThreeStrings);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("atLeastThreeStrings"));
     }
-    // Validations contributed by "AndroidInspectorExtension"
-    int atLeastThreeStringsSize = atLeastThreeStrings.size();
-    if (atLeastThreeStringsSize < 3) {
-      throw new ValidationException("atLeastThreeStrings's size must be greater than 3 but is " + atLeastThreeStringsSize);
-    }
-    atLeastThreeStringsValidator.validate(atLeastThreeStrings);
 
     // Begin validation for "atMostThreeStrings()"
-    Set<String> atMostThreeStrings = value.atMostThreeStrings();
-
-    // Validations contributed by "NullabilityInspectorExtension"
-    if (atMostThreeStrings == null) {
-      throw new ValidationException("atMostThreeStrings() is not nullable but returns a null");
-    }
-    // Validations contributed by "AndroidInspectorExtension"
-    int atMostThreeStringsSize = atMostThreeStrings.size();
-    if (atMostThreeStringsSize > 3) {
-      throw new ValidationException("atMostThreeStrings's size must be less than 3 but is " + atMostThreeStringsSize);
+    try {
+      Set<String> atMostThreeStrings = value.atMostThreeStrings();
+
+      // Validations contributed by "NullabilityInspectorExtension"
+      if (atMostThreeStrings == null) {
+        throw new ValidationException("atMostThreeStrings() is not nullable but returns a null");
+      }
+      // Validations contributed by "AndroidInspectorExtension"
+      int atMostThreeStringsSize = atMostThreeStrings.size();
+      if (atMostThreeStringsSize > 3) {
+        throw ValidationException.format("atMostThreeStrings's size must be less than 3 but is %s", atMostThreeStringsSize);
+      }
+      atMostThreeStringsValidator.validate(atMostThreeStrings);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("atMostThreeStrings"));
     }
-    atMostThreeStringsValidator.validate(atMostThreeStrings);
 
     // Begin validation for "checkMustBeTrue()"
-    boolean checkMustBeTrue = value.checkMustBeTrue();
-
-    // Validations contributed by "RaveInspectorExtension"
-    if (!value.checkMustBeTrue()) {
-      throw new ValidationException("checkMustBeTrue must be true but is false");
+    try {
+      boolean checkMustBeTrue = value.checkMustBeTrue();
+
+      // Validations contributed by "RaveInspectorExtension"
+      if (!value.checkMustBeTrue()) {
+        throw new ValidationException("checkMustBeTrue must be true but is false");
+      }
+      checkMustBeTrueValidator.validate(checkMustBeTrue);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("checkMustBeTrue"));
     }
-    checkMustBeTrueValidator.validate(checkMustBeTrue);
 
     // Begin validation for "checkMustBeFalse()"
-    boolean checkMustBeFalse = value.checkMustBeFalse();
-
-    // Validations contributed by "RaveInspectorExtension"
-    if (value.checkMustBeFalse()) {
-      throw new ValidationException("checkMustBeFalse must be false but is true");
+    try {
+      boolean checkMustBeFalse = value.checkMustBeFalse();
+
+      // Validations contributed by "RaveInspectorExtension"
+      if (value.checkMustBeFalse()) {
+        throw new ValidationException("checkMustBeFalse must be false but is true");
+      }
+      checkMustBeFalseValidator.validate(checkMustBeFalse);
+    } catch (ValidationException e) {
+      failures = errorPolicy.collect(failures, e.prependProperty("checkMustBeFalse"));
     }
-    checkMustBeFalseValidator.validate(checkMustBeFalse);
 
+    errorPolicy.throwIfAny(failures);
   }
 }
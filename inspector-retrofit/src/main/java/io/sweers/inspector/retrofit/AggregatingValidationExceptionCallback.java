@@ -0,0 +1,281 @@
+package io.sweers.inspector.retrofit;
+
+import io.sweers.inspector.CompositeValidationException;
+import io.sweers.inspector.ValidationException;
+import io.sweers.inspector.retrofit.InspectorConverterFactory.ValidationExceptionCallback;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ValidationExceptionCallback} that counts failures rather than passing each one on,
+ * for when a regressed upstream makes every response fail the same way. Failures are grouped by
+ * {@link Fingerprint}: the type that was validated, where the failure is, and its kind. Each
+ * group passes at most one exemplar on to a delegate callback per period, such as one that logs
+ * it, and otherwise only increments a counter, so a storm of identical failures costs little
+ * more than the validation itself. Read the counts with {@link #counts()}.
+ *
+ * <p>Failures that are made up of several are counted, and passed on, one by one. At most a
+ * maximum number of fingerprints are counted at once. Past that, the one that least recently
+ * passed on an exemplar is forgotten, along with its count.
+ */
+public final class AggregatingValidationExceptionCallback implements ValidationExceptionCallback {
+  private static final int DEFAULT_MAXIMUM_FINGERPRINTS = 1024;
+  private static final int STRIPES = stripes();
+  /** The longs between counted stripes, so that they don't share cache lines. */
+  private static final int STRIDE = 8;
+
+  private static int stripes() {
+    // The smallest power of 2 that gives every processor its own stripe, up to 64.
+    int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+    return Integer.highestOneBit(Math.max(processors - 1, 1)) << 1;
+  }
+
+  private final ValidationExceptionCallback exemplars;
+  private final long periodNanos;
+  private final int maximumFingerprints;
+  private final ConcurrentMap<Fingerprint, Counter> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a callback that passes at most one exemplar of each fingerprint on to {@code
+   * exemplars} every {@code period}, and counts up to 1024 fingerprints at once. Exceptions that
+   * {@code exemplars} throws are thrown from here too.
+   */
+  public AggregatingValidationExceptionCallback(ValidationExceptionCallback exemplars,
+      long period,
+      TimeUnit unit) {
+    this(exemplars, period, unit, DEFAULT_MAXIMUM_FINGERPRINTS);
+  }
+
+  /**
+   * Creates a callback that passes at most one exemplar of each fingerprint on to {@code
+   * exemplars} every {@code period}, and counts up to {@code maximumFingerprints} fingerprints at
+   * once. Exceptions that {@code exemplars} throws are thrown from here too.
+   */
+  public AggregatingValidationExceptionCallback(ValidationExceptionCallback exemplars,
+      long period,
+      TimeUnit unit,
+      int maximumFingerprints) {
+    if (exemplars == null) throw new IllegalArgumentException("exemplars == null");
+    if (period < 0) throw new IllegalArgumentException("period < 0: " + period);
+    if (unit == null) throw new IllegalArgumentException("unit == null");
+    if (maximumFingerprints <= 0) {
+      throw new IllegalArgumentException("maximumFingerprints <= 0: " + maximumFingerprints);
+    }
+    this.exemplars = exemplars;
+    this.periodNanos = unit.toNanos(period);
+    this.maximumFingerprints = maximumFingerprints;
+  }
+
+  @Override public void onValidationException(Type type, ValidationException exception)
+      throws IOException {
+    if (exception instanceof CompositeValidationException) {
+      for (ValidationException failure : ((CompositeValidationException) exception)
+          .getExceptions()) {
+        onValidationException(type, failure);
+      }
+      return;
+    }
+    Fingerprint fingerprint =
+        new Fingerprint(type, normalize(exception.path()), kind(exception));
+    Counter counter = counters.get(fingerprint);
+    if (counter == null) {
+      Counter newCounter = new Counter();
+      counter = counters.putIfAbsent(fingerprint, newCounter);
+      if (counter == null) {
+        counter = newCounter;
+        if (counters.size() > maximumFingerprints) evict(fingerprint);
+      }
+    }
+    counter.increment();
+    if (counter.claimExemplar(periodNanos)) {
+      exemplars.onValidationException(type, exception);
+    }
+  }
+
+  /**
+   * Returns the kind of {@code exception}: its class, followed by the template of its message if
+   * it has one. Inspector's own failures, such as null values and getters that threw, are all
+   * plain {@link ValidationException ValidationExceptions} that differ by their template.
+   */
+  static String kind(ValidationException exception) {
+    String name = exception.getClass()
+        .getName();
+    String template = exception.messageTemplate();
+    return template != null ? name + ": " + template : name;
+  }
+
+  /** Returns the number of failures counted so far by their fingerprints. */
+  public Map<Fingerprint, Long> counts() {
+    Map<Fingerprint, Long> counts = new LinkedHashMap<>();
+    for (Map.Entry<Fingerprint, Counter> entry : counters.entrySet()) {
+      counts.put(entry.getKey(), entry.getValue()
+          .sum());
+    }
+    return Collections.unmodifiableMap(counts);
+  }
+
+  /** Forgets every failure counted so far. */
+  public void clear() {
+    counters.clear();
+  }
+
+  /**
+   * Forgets the fingerprints that least recently passed on an exemplar, other than the {@code
+   * added} one, until there are no more than the maximum. New fingerprints are rare next to
+   * repeated ones, so a scan is cheap enough.
+   */
+  private synchronized void evict(Fingerprint added) {
+    while (counters.size() > maximumFingerprints) {
+      long now = System.nanoTime();
+      Map.Entry<Fingerprint, Counter> oldest = null;
+      long oldestAge = Long.MIN_VALUE;
+      for (Map.Entry<Fingerprint, Counter> entry : counters.entrySet()) {
+        if (entry.getKey()
+            .equals(added)) {
+          continue;
+        }
+        long age = now - entry.getValue().nextExemplarNanos.get();
+        if (age > oldestAge) {
+          oldest = entry;
+          oldestAge = age;
+        }
+      }
+      if (oldest == null) return;
+      counters.remove(oldest.getKey(), oldest.getValue());
+    }
+  }
+
+  /**
+   * Returns {@code path} with indices and keys left out, e.g. {@code items[].sku} for {@code
+   * items[42].sku}, so that failures of the same property in different elements are grouped.
+   * Brackets and backslashes within keys are escaped with a backslash, so they don't end the key.
+   */
+  static String normalize(String path) {
+    if (path.indexOf('[') == -1) return path;
+    StringBuilder builder = new StringBuilder(path.length());
+    boolean inSegment = false;
+    for (int i = 0, length = path.length(); i < length; i++) {
+      char c = path.charAt(i);
+      if (!inSegment) {
+        builder.append(c);
+        inSegment = c == '[';
+      } else if (c == '\\') {
+        i++; // Skip the escaped character.
+      } else if (c == ']') {
+        builder.append(c);
+        inSegment = false;
+      }
+    }
+    return builder.toString();
+  }
+
+  /** What makes failures count as the same. */
+  public static final class Fingerprint {
+    private final Type type;
+    private final String path;
+    private final String kind;
+
+    Fingerprint(Type type, String path, String kind) {
+      this.type = type;
+      this.path = path;
+      this.kind = kind;
+    }
+
+    /** The type that was validated. */
+    public Type type() {
+      return type;
+    }
+
+    /** Where the failure is, without indices or keys, e.g. {@code items[].sku}. */
+    public String path() {
+      return path;
+    }
+
+    /**
+     * The name of the failure's exception class, followed by the template of its message if it
+     * has one, e.g. {@code io.sweers.inspector.ValidationException: %s threw an exception when
+     * called.}
+     */
+    public String kind() {
+      return kind;
+    }
+
+    @Override public boolean equals(@Nullable Object o) {
+      if (!(o instanceof Fingerprint)) return false;
+      Fingerprint other = (Fingerprint) o;
+      return type.equals(other.type) && path.equals(other.path) && kind.equals(other.kind);
+    }
+
+    @Override public int hashCode() {
+      return (type.hashCode() * 31 + path.hashCode()) * 31 + kind.hashCode();
+    }
+
+    @Override public String toString() {
+      return "Fingerprint(" + type + ", " + path + ", " + kind + ")";
+    }
+  }
+
+  /**
+   * Counts the failures of one fingerprint. Most fingerprints are only ever counted by one thread
+   * at a time, so a counter starts out as a single count. Once threads contend on it, they count
+   * in stripes picked by their IDs instead, so that threads failing the same way at once rarely
+   * contend on one.
+   */
+  private static final class Counter {
+    private final AtomicLong base = new AtomicLong();
+    /** Created once threads contend on {@link #base}. */
+    private volatile @Nullable AtomicLongArray stripes;
+    /** When the next exemplar may be passed on, relative to {@link System#nanoTime()}. */
+    final AtomicLong nextExemplarNanos = new AtomicLong(System.nanoTime());
+
+    void increment() {
+      AtomicLongArray stripes = this.stripes;
+      if (stripes == null) {
+        long count = base.get();
+        if (base.compareAndSet(count, count + 1)) return;
+        stripes = stripes();
+      }
+      int stripe = (int) Thread.currentThread()
+          .getId() & (STRIPES - 1);
+      stripes.getAndIncrement(stripe * STRIDE);
+    }
+
+    private synchronized AtomicLongArray stripes() {
+      AtomicLongArray stripes = this.stripes;
+      if (stripes == null) {
+        stripes = new AtomicLongArray(STRIPES * STRIDE);
+        this.stripes = stripes;
+      }
+      return stripes;
+    }
+
+    long sum() {
+      long sum = base.get();
+      AtomicLongArray stripes = this.stripes;
+      if (stripes != null) {
+        for (int i = 0; i < STRIPES; i++) {
+          sum += stripes.get(i * STRIDE);
+        }
+      }
+      return sum;
+    }
+
+    /** Returns true if the caller should pass its failure on as this period's exemplar. */
+    boolean claimExemplar(long periodNanos) {
+      long now = System.nanoTime();
+      long next = nextExemplarNanos.get();
+      if (now - next < 0) return false;
+      // Of the threads that get here at once, only one passes its failure on.
+      return nextExemplarNanos.compareAndSet(next, now + periodNanos);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package io.sweers.inspector.retrofit;
 
 import io.sweers.inspector.Inspector;
 import io.sweers.inspector.ValidationException;
+import io.sweers.inspector.ValidatorKey;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
@@ -30,21 +31,28 @@ public final class InspectorConverterFactory extends Converter.Factory {
     Converter<ResponseBody, ?> delegateConverter =
         retrofit.nextResponseBodyConverter(this, type, annotations);
 
-    return new InspectorResponseConverter(type, inspector, callback, delegateConverter);
+    return new InspectorResponseConverter(type,
+        inspector.key(type),
+        inspector,
+        callback,
+        delegateConverter);
   }
 
   private static class InspectorResponseConverter implements Converter<ResponseBody, Object> {
 
     private final Type type;
+    private final ValidatorKey<Object> key;
     private final Inspector inspector;
     private final ValidationExceptionCallback callback;
     private final Converter<ResponseBody, ?> delegateConverter;
 
     InspectorResponseConverter(Type type,
+        ValidatorKey<Object> key,
         Inspector inspector,
         ValidationExceptionCallback callback,
         Converter<ResponseBody, ?> delegateConverter) {
       this.type = type;
+      this.key = key;
       this.inspector = inspector;
       this.callback = callback;
       this.delegateConverter = delegateConverter;
@@ -53,7 +61,7 @@ public final class InspectorConverterFactory extends Converter.Factory {
     @Override public Object convert(ResponseBody value) throws IOException {
       Object convert = delegateConverter.convert(value);
       try {
-        inspector.validator(type)
+        inspector.validator(key)
             .validate(convert);
       } catch (ValidationException validationException) {
         callback.onValidationException(type, validationException);
@@ -65,6 +73,8 @@ public final class InspectorConverterFactory extends Converter.Factory {
   /**
    * A callback to be notified on validation exceptions and potentially act on them. Use cases could
    * include logging, throwing, etc.
+   *
+   * @see AggregatingValidationExceptionCallback
    */
   public interface ValidationExceptionCallback {
 
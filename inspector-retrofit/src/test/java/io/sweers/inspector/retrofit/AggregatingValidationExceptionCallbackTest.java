@@ -0,0 +1,167 @@
+package io.sweers.inspector.retrofit;
+
+import io.sweers.inspector.Inspector;
+import io.sweers.inspector.ValidationException;
+import io.sweers.inspector.Validator;
+import io.sweers.inspector.retrofit.AggregatingValidationExceptionCallback.Fingerprint;
+import io.sweers.inspector.retrofit.InspectorConverterFactory.ValidationExceptionCallback;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public final class AggregatingValidationExceptionCallbackTest {
+
+  @Test public void countsAndSamples() throws IOException {
+    final List<ValidationException> exemplars = new ArrayList<>();
+    AggregatingValidationExceptionCallback callback =
+        new AggregatingValidationExceptionCallback(new ValidationExceptionCallback() {
+          @Override public void onValidationException(Type type, ValidationException exception) {
+            exemplars.add(exception);
+          }
+        }, 1, TimeUnit.HOURS);
+
+    for (int i = 0; i < 100; i++) {
+      callback.onValidationException(String.class, new ValidationException("Bad sku.")
+          .prependProperty("sku")
+          .prependIndex(i)
+          .prependProperty("items"));
+    }
+    callback.onValidationException(String.class, new ValidationException("No items."));
+
+    assertThat(exemplars).hasSize(2);
+    Map<Fingerprint, Long> counts = callback.counts();
+    assertThat(counts).hasSize(2);
+    for (Map.Entry<Fingerprint, Long> entry : counts.entrySet()) {
+      Fingerprint fingerprint = entry.getKey();
+      assertThat(fingerprint.type()).isEqualTo(String.class);
+      assertThat(fingerprint.kind()).isEqualTo(ValidationException.class.getName());
+      if (fingerprint.path()
+          .isEmpty()) {
+        assertThat(entry.getValue()).isEqualTo(1L);
+      } else {
+        assertThat(fingerprint.path()).isEqualTo("items[].sku");
+        assertThat(entry.getValue()).isEqualTo(100L);
+      }
+    }
+
+    callback.clear();
+    assertThat(callback.counts()).isEmpty();
+  }
+
+  public static class Flaky {
+    boolean fail;
+
+    public String name() {
+      if (fail) throw new IllegalStateException("boom");
+      return null;
+    }
+  }
+
+  @Test public void kindsAtOnePath() throws IOException {
+    AggregatingValidationExceptionCallback callback =
+        new AggregatingValidationExceptionCallback(new ValidationExceptionCallback() {
+          @Override public void onValidationException(Type type, ValidationException exception) {
+          }
+        }, 1, TimeUnit.HOURS);
+    Validator<Flaky> validator = new Inspector.Builder().build()
+        .validator(Flaky.class);
+    Flaky flaky = new Flaky();
+    for (int i = 0; i < 3; i++) {
+      flaky.fail = i == 0;
+      try {
+        validator.validate(flaky);
+        throw new AssertionError();
+      } catch (ValidationException e) {
+        callback.onValidationException(Flaky.class, e);
+      }
+    }
+
+    // A null and a getter that threw are both ValidationExceptions at name.
+    Map<Fingerprint, Long> counts = callback.counts();
+    assertThat(counts).hasSize(2);
+    for (Map.Entry<Fingerprint, Long> entry : counts.entrySet()) {
+      Fingerprint fingerprint = entry.getKey();
+      assertThat(fingerprint.path()).isEqualTo("name");
+      assertThat(entry.getValue()).isEqualTo(fingerprint.kind()
+          .contains("threw") ? 1L : 2L);
+    }
+  }
+
+  @Test public void normalize() {
+    assertThat(AggregatingValidationExceptionCallback.normalize("")).isEmpty();
+    assertThat(AggregatingValidationExceptionCallback.normalize("a.b")).isEqualTo("a.b");
+    assertThat(AggregatingValidationExceptionCallback.normalize("[3][key].a")).isEqualTo(
+        "[][].a");
+
+    // Keys with brackets in them are escaped, and still left out as a whole.
+    String path = new ValidationException("Bad.").prependProperty("a")
+        .prependKey("x]y[0]\\")
+        .prependProperty("map")
+        .path();
+    assertThat(path).isEqualTo("map[x\\]y\\[0\\]\\\\].a");
+    assertThat(AggregatingValidationExceptionCallback.normalize(path)).isEqualTo("map[].a");
+  }
+
+  @Test public void boundedFingerprints() throws IOException {
+    final List<ValidationException> exemplars = new ArrayList<>();
+    AggregatingValidationExceptionCallback callback =
+        new AggregatingValidationExceptionCallback(new ValidationExceptionCallback() {
+          @Override public void onValidationException(Type type, ValidationException exception) {
+            exemplars.add(exception);
+          }
+        }, 1, TimeUnit.HOURS, 2);
+
+    callback.onValidationException(String.class, new ValidationException("a").prependProperty("a"));
+    callback.onValidationException(String.class, new ValidationException("b").prependProperty("b"));
+    callback.onValidationException(String.class, new ValidationException("c").prependProperty("c"));
+    Map<Fingerprint, Long> counts = callback.counts();
+    assertThat(counts).hasSize(2);
+    List<String> paths = new ArrayList<>();
+    for (Fingerprint fingerprint : counts.keySet()) {
+      paths.add(fingerprint.path());
+    }
+    // The newest is kept, and one of the others had to go.
+    assertThat(paths).contains("c");
+    assertThat(exemplars).hasSize(3);
+  }
+
+  @Test public void concurrentCounts() throws Exception {
+    final AggregatingValidationExceptionCallback callback =
+        new AggregatingValidationExceptionCallback(new ValidationExceptionCallback() {
+          @Override public void onValidationException(Type type, ValidationException exception) {
+          }
+        }, 1, TimeUnit.HOURS);
+    final ValidationException failure = new ValidationException("Bad.");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override public Void call() throws IOException {
+            for (int i = 0; i < 10_000; i++) {
+              callback.onValidationException(String.class, failure);
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(callback.counts()
+        .values()).containsExactly(40_000L);
+  }
+}
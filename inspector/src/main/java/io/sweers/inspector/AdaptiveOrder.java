@@ -0,0 +1,119 @@
+package io.sweers.inspector;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Runs the property bindings of a {@link ClassValidator}, for inspectors with {@linkplain
+ * Inspector.Builder#adaptiveCheckOrder() adaptive check order}. Validation stops at the first
+ * failure, so the cheapest order runs properties by ascending cost per failure: a cheap property
+ * that often fails first, and expensive ones that never fail last.
+ *
+ * <p>Every failure is counted, since reporting it costs more than that anyway, and one in {@value
+ * #SAMPLE_RATE} validations is timed. Every {@value #INTERVAL} validations, the bindings are
+ * reordered by what was observed since the last time. Counters are updated without
+ * synchronization, so racing threads may lose a few updates, which only makes the statistics
+ * slightly less precise. Reordering doesn't lock either: a thread that reaches the interval
+ * builds a new order and publishes it with a compare-and-set, and if another thread published one
+ * first, its own is dropped.
+ *
+ * <p>Only class validators adapt their order. Their properties are read independently of each
+ * other, so any order reports a failure that's really there. The validators of a {@link
+ * CompositeValidator} are run in the order they were given, since a later one may rely on an
+ * earlier one having passed.
+ */
+final class AdaptiveOrder {
+  /** The number of validations between reorderings. */
+  private static final int INTERVAL = 1024;
+  /** One in this many validations is timed. A power of 2. */
+  private static final int SAMPLE_RATE = 64;
+
+  private static final AtomicReferenceFieldUpdater<AdaptiveOrder, Slot[]> SLOTS =
+      AtomicReferenceFieldUpdater.newUpdater(AdaptiveOrder.class, Slot[].class, "slots");
+
+  private volatile Slot[] slots;
+  /** The number of validations since the last reordering. */
+  private int calls;
+
+  AdaptiveOrder(ClassValidator.PropertyBinding<?>[] bindings) {
+    Slot[] slots = new Slot[bindings.length];
+    for (int i = 0; i < bindings.length; i++) {
+      slots[i] = new Slot(bindings[i]);
+    }
+    this.slots = slots;
+  }
+
+  ValidationResult check(Object validationTarget) {
+    Slot[] slots = this.slots;
+    int calls = ++this.calls;
+    ValidationResult result = ValidationResult.valid();
+    if ((calls & (SAMPLE_RATE - 1)) != 0) {
+      for (Slot slot : slots) {
+        result = slot.binding.check(validationTarget);
+        if (!result.isValid()) {
+          slot.failures++;
+          break;
+        }
+      }
+    } else {
+      long start = System.nanoTime();
+      for (Slot slot : slots) {
+        result = slot.binding.check(validationTarget);
+        long end = System.nanoTime();
+        slot.nanos += end - start;
+        slot.samples++;
+        start = end;
+        if (!result.isValid()) {
+          slot.failures++;
+          break;
+        }
+      }
+    }
+    if (calls >= INTERVAL) reorder(slots, calls);
+    return result;
+  }
+
+  private void reorder(Slot[] slots, int calls) {
+    // Other threads keep updating the counters, so read each once and sort copies of them.
+    double[] costs = new double[slots.length];
+    int reached = calls;
+    for (int i = 0; i < slots.length; i++) {
+      Slot slot = slots[i];
+      int failures = slot.failures;
+      int samples = slot.samples;
+      // Failures are the only reason for validation to stop before a binding.
+      double failureRate = reached > 0 ? (double) failures / reached : 0;
+      double cost = samples > 0 ? (double) slot.nanos / samples : 1;
+      costs[i] = failureRate > 0 ? cost / failureRate : Double.POSITIVE_INFINITY;
+      reached -= failures;
+    }
+
+    // An insertion sort, which is stable, so bindings that never fail keep their relative order.
+    // Classes have few enough properties that it's cheaper than sorting boxed indices.
+    Slot[] reordered = new Slot[slots.length];
+    for (int i = 0; i < slots.length; i++) {
+      Slot slot = new Slot(slots[i].binding);
+      double cost = costs[i];
+      int j = i;
+      for (; j > 0 && costs[j - 1] > cost; j--) {
+        costs[j] = costs[j - 1];
+        reordered[j] = reordered[j - 1];
+      }
+      costs[j] = cost;
+      reordered[j] = slot;
+    }
+    // Unless another thread already reordered these.
+    if (SLOTS.compareAndSet(this, slots, reordered)) this.calls = 0;
+  }
+
+  /** A binding and what's been observed of it since the last reordering. */
+  private static final class Slot {
+    final ClassValidator.PropertyBinding<?> binding;
+    int failures;
+    long nanos;
+    int samples;
+
+    Slot(ClassValidator.PropertyBinding<?> binding) {
+      this.binding = binding;
+    }
+  }
+}
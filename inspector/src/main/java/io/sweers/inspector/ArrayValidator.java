@@ -3,6 +3,8 @@ package io.sweers.inspector;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 
@@ -17,21 +19,40 @@ final class ArrayValidator extends Validator<Object> {
       Type elementType = Types.arrayComponentType(type);
       if (elementType == null) return null;
       if (!annotations.isEmpty()) return null;
-      Validator<Object> elementValidator = inspector.validator(elementType);
-      return new ArrayValidator(elementValidator).nullSafe();
+      Validator<Object> elementValidator =
+          SubtypeValidator.of(inspector, elementType, Util.NO_ANNOTATIONS);
+      // Don't iterate over elements just to do nothing with them.
+      if (elementValidator.isNoOp()) return StandardValidators.NO_OP_VALIDATOR;
+      return new ArrayValidator(elementValidator, inspector).nullSafe();
     }
   };
 
   private final Validator<Object> elementValidator;
+  private final boolean writableStackTraces;
+  private final ErrorPolicy errorPolicy;
 
-  ArrayValidator(Validator<Object> elementValidator) {
+  ArrayValidator(Validator<Object> elementValidator, Inspector inspector) {
     this.elementValidator = elementValidator;
+    this.writableStackTraces = inspector.writableStackTraces();
+    this.errorPolicy = inspector.errorPolicy();
   }
 
   @Override public void validate(Object validationTarget) throws ValidationException {
+    check(validationTarget).throwIfInvalid(writableStackTraces);
+  }
+
+  @Override public ValidationResult check(Object validationTarget) {
+    List<ValidationResult> failures = null;
     for (int i = 0, size = Array.getLength(validationTarget); i < size; i++) {
-      elementValidator.validate(Array.get(validationTarget, i));
+      ValidationResult result = elementValidator.check(Array.get(validationTarget, i));
+      if (result.isValid()) continue;
+      result = result.prependIndex(i);
+      if (errorPolicy.isFailFast()) return result;
+      if (failures == null) failures = new ArrayList<>();
+      failures.add(result);
+      if (failures.size() == errorPolicy.maximumFailures) break;
     }
+    return ValidationResult.ofFailures(failures);
   }
 
   @Override public String toString() {
@@ -0,0 +1,39 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * An immutable cache key for a qualified validator lookup. Unqualified lookups are keyed by their
+ * canonical type alone.
+ */
+final class CacheKey {
+  final Type type;
+  final Set<? extends Annotation> annotations;
+  private final int hashCode;
+
+  CacheKey(Type type, Set<? extends Annotation> annotations) {
+    this.type = type;
+    this.annotations = annotations;
+    this.hashCode = 31 * type.hashCode() + annotations.hashCode();
+  }
+
+  @Override public boolean equals(Object o) {
+    if (o == this) return true;
+    if (!(o instanceof CacheKey)) return false;
+    CacheKey other = (CacheKey) o;
+    return hashCode == other.hashCode
+        && type.equals(other.type)
+        // Qualifier sets are usually interned, so check identity before comparing annotations.
+        && (annotations == other.annotations || annotations.equals(other.annotations));
+  }
+
+  @Override public int hashCode() {
+    return hashCode;
+  }
+
+  @Override public String toString() {
+    return type + " annotated " + annotations;
+  }
+}
@@ -0,0 +1,139 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * What {@link ClassValidator} needs to know about the methods, or fields, that a class declares.
+ * None of it depends on the inspector, so it's computed once per class and shared by every
+ * inspector, and by the validators of every subclass.
+ */
+final class ClassMetadata {
+  private static final ClassSlots<ClassMetadata> METHODS = ClassSlots.create();
+  private static final ClassSlots<ClassMetadata> FIELDS = ClassSlots.create();
+
+  /** Returns the metadata of the methods {@code rawType} declares. */
+  static ClassMetadata methods(Class<?> rawType) {
+    ClassMetadata metadata = METHODS.get(rawType);
+    if (metadata != null) return metadata;
+    return METHODS.putIfAbsent(rawType, new ClassMetadata(methodProperties(rawType)));
+  }
+
+  /** Returns the metadata of the fields {@code rawType} declares. */
+  static ClassMetadata fields(Class<?> rawType) {
+    ClassMetadata metadata = FIELDS.get(rawType);
+    if (metadata != null) return metadata;
+    return FIELDS.putIfAbsent(rawType, new ClassMetadata(fieldProperties(rawType)));
+  }
+
+  /** The members that are validated, in declaration order. */
+  final Property[] properties;
+
+  private ClassMetadata(List<Property> properties) {
+    this.properties = properties.toArray(new Property[properties.size()]);
+  }
+
+  private static List<Property> methodProperties(Class<?> rawType) {
+    boolean platformType = ClassValidator.isPlatformType(rawType);
+    List<Property> properties = new ArrayList<>();
+    for (Method method : rawType.getDeclaredMethods()) {
+      if (!includeMember(platformType, method.getModifiers())) continue;
+      if (method.getParameterTypes().length != 0) continue;
+      // Read the annotations once, since each call copies them.
+      Annotation[] annotations = method.getDeclaredAnnotations();
+      if (find(annotations, InspectorIgnored.class) != null) continue;
+      properties.add(new Property(method,
+          method.getGenericReturnType(),
+          method.getReturnType(),
+          annotations));
+    }
+    return properties;
+  }
+
+  private static List<Property> fieldProperties(Class<?> rawType) {
+    boolean platformType = ClassValidator.isPlatformType(rawType);
+    List<Property> properties = new ArrayList<>();
+    for (Field field : rawType.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (!includeMember(platformType, modifiers)) continue;
+      // Transient fields are typically caches of what the other fields hold.
+      if (Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+      Annotation[] annotations = field.getDeclaredAnnotations();
+      if (find(annotations, InspectorIgnored.class) != null) continue;
+      properties.add(new Property(field, field.getGenericType(), field.getType(), annotations));
+    }
+    return properties;
+  }
+
+  /** Returns true if members with {@code modifiers} are included in the emitted validator. */
+  private static boolean includeMember(boolean platformType, int modifiers) {
+    return !Modifier.isStatic(modifiers) && (Modifier.isPublic(modifiers) || Modifier.isProtected(
+        modifiers) || !platformType);
+  }
+
+  /** Returns the annotation of {@code annotationType} in {@code annotations}, or null. */
+  private static @Nullable <A extends Annotation> A find(Annotation[] annotations,
+      Class<A> annotationType) {
+    for (Annotation annotation : annotations) {
+      if (annotation.annotationType() == annotationType) return annotationType.cast(annotation);
+    }
+    return null;
+  }
+
+  /** A method or field that's validated. */
+  static final class Property {
+    /** A {@link Method} or a {@link Field}. */
+    final Member member;
+    /** The declared type, which still needs resolving against the validated type. */
+    final Type type;
+    final Set<? extends Annotation> qualifiers;
+    /** True for primitives, which are never null, and members annotated Nullable. */
+    final boolean nullable;
+    final @Nullable ValidatedBy validatedBy;
+    private volatile @Nullable Getters.Getter getter;
+
+    <M extends AccessibleObject & Member> Property(M member,
+        Type type,
+        Class<?> rawType,
+        Annotation[] annotations) {
+      member.setAccessible(true);
+      this.member = member;
+      this.type = Types.canonicalize(type);
+      this.qualifiers = Util.validationAnnotations(annotations);
+      this.nullable = rawType.isPrimitive() || Util.hasNullable(annotations);
+      this.validatedBy = find(annotations, ValidatedBy.class);
+    }
+
+    String name() {
+      return member.getName();
+    }
+
+    boolean isField() {
+      return member instanceof Field;
+    }
+
+    /** Returns the getter shared by every validator that reads this member. */
+    Getters.Getter getter() {
+      Getters.Getter getter = this.getter;
+      if (getter == null) {
+        getter = Getters.of(member);
+        this.getter = getter;
+      }
+      return getter;
+    }
+
+    /** Returns a getter that reads this member through plain reflection. */
+    Getters.Getter reflectiveGetter() {
+      return Getters.reflective(member);
+    }
+  }
+}
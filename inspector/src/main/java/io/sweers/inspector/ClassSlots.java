@@ -0,0 +1,74 @@
+package io.sweers.inspector;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+/**
+ * Per-class storage that doesn't keep classes, or their class loaders, reachable. This is backed by
+ * {@link ClassValue} where it's available. Elsewhere, such as on Android, it falls back to a
+ * synchronized {@link WeakHashMap}, where values that reference their class keep it reachable.
+ *
+ * <p>Each instance is a {@link ClassValue} of its own, so every class that's looked up in it
+ * carries an entry for it: a few dozen bytes, in a table that the class itself holds. Once an
+ * instance is collected, its entries are dropped the next time their classes' tables are updated.
+ * That's only if the values don't reference the instance, though: a class holds its values
+ * strongly, so a value that leads back to its {@link ClassValue} keeps both reachable for as long
+ * as the class is loaded. Values stored for an inspector therefore mustn't keep the inspector;
+ * validators that look others up as they validate go through an {@link Inspector.Handle}.
+ */
+abstract class ClassSlots<V> {
+  private static final boolean CLASS_VALUE_AVAILABLE = isClassValueAvailable();
+
+  static <V> ClassSlots<V> create() {
+    return CLASS_VALUE_AVAILABLE ? new ClassValueSlots<V>() : new WeakHashMapSlots<V>();
+  }
+
+  /** Returns the value stored for {@code type}, or null if there is none. */
+  abstract @Nullable V get(Class<?> type);
+
+  /** Stores {@code value} for {@code type} unless there's one already, and returns the winner. */
+  abstract V putIfAbsent(Class<?> type, V value);
+
+  private static boolean isClassValueAvailable() {
+    try {
+      Class.forName("java.lang.ClassValue");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static final class ClassValueSlots<V> extends ClassSlots<V> {
+    private final ClassValue<AtomicReference<V>> slots = new ClassValue<AtomicReference<V>>() {
+      @Override protected AtomicReference<V> computeValue(Class<?> type) {
+        return new AtomicReference<>();
+      }
+    };
+
+    @Override @Nullable V get(Class<?> type) {
+      return slots.get(type).get();
+    }
+
+    @Override V putIfAbsent(Class<?> type, V value) {
+      AtomicReference<V> slot = slots.get(type);
+      return slot.compareAndSet(null, value) ? value : slot.get();
+    }
+  }
+
+  private static final class WeakHashMapSlots<V> extends ClassSlots<V> {
+    private final Map<Class<?>, V> slots = new WeakHashMap<>();
+
+    @Override @Nullable synchronized V get(Class<?> type) {
+      return slots.get(type);
+    }
+
+    @Override synchronized V putIfAbsent(Class<?> type, V value) {
+      V existing = slots.get(type);
+      if (existing != null) return existing;
+      slots.put(type, value);
+      return value;
+    }
+  }
+}
@@ -1,18 +1,21 @@
 package io.sweers.inspector;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import javax.annotation.Nullable;
 
 /**
- * Emits a validator that validates validatable methods of a class.
+ * Emits a validator that validates validatable methods, or fields, of a class. Interfaces are
+ * validated through their accessors, which suits flyweights: implementations that read each
+ * property in place, from a {@link java.nio.ByteBuffer} say, so that many records can be validated
+ * through one reused view rather than an object per record.
  *
  * <h3>Platform Types</h3>
  * Fields from platform classes are omitted from both serialization and deserialization unless
@@ -32,7 +35,13 @@ final class ClassValidator<T> extends Validator<T> {
         Set<? extends Annotation> annotations,
         Inspector inspector) {
       Class<?> rawType = Types.getRawType(type);
-      if (rawType.isInterface() || rawType.isEnum()) return null;
+      if (rawType.isEnum()) return null;
+      if (rawType.isInterface()) {
+        if (!annotations.isEmpty() || isPlatformType(rawType)) return null;
+        Map<String, PropertyBinding<?>> properties = new TreeMap<>();
+        createInterfaceBindings(inspector, type, properties);
+        return new ClassValidator<>(rawType, properties, inspector).nullSafe();
+      }
       if (isPlatformType(rawType) && !Types.isAllowedPlatformType(rawType)) {
         throw new IllegalArgumentException("Platform "
             + type
@@ -56,111 +65,115 @@ final class ClassValidator<T> extends Validator<T> {
         throw new IllegalArgumentException("Cannot validate abstract class " + rawType.getName());
       }
 
-      ClassFactory<Object> classFactory = ClassFactory.get(rawType);
-      Map<String, MethodBinding<?>> methods = new TreeMap<>();
+      Map<String, PropertyBinding<?>> properties = new TreeMap<>();
       for (Type t = type; t != Object.class; t = Types.getGenericSuperclass(t)) {
-        createMethodBindings(inspector, t, methods);
+        createPropertyBindings(inspector, t, false, properties);
+      }
+      return new ClassValidator<>(rawType, properties, inspector).nullSafe();
+    }
+
+    /**
+     * Creates a binding for each accessor of interface {@code type} and its superinterfaces. Sub
+     * interfaces are visited first, so that an accessor redeclared with a narrower return type is
+     * validated as that type.
+     */
+    private void createInterfaceBindings(Inspector inspector,
+        Type type,
+        Map<String, PropertyBinding<?>> propertyBindings) {
+      createPropertyBindings(inspector, type, true, propertyBindings);
+      Class<?> rawType = Types.getRawType(type);
+      for (Type superinterface : rawType.getGenericInterfaces()) {
+        createInterfaceBindings(inspector,
+            Types.resolve(type, rawType, superinterface),
+            propertyBindings);
       }
-      return new ClassValidator<>(classFactory, methods).nullSafe();
     }
 
-    /** Creates a method binding for each of declared method of {@code type}. */
-    @SuppressWarnings("ClassNewInstance") private void createMethodBindings(Inspector inspector,
+    /**
+     * Creates a binding for each validated method of {@code type}, or for each validated field if
+     * the inspector {@linkplain Inspector.Builder#validateFields() validates fields}. Interfaces
+     * don't have instance fields, so they're always validated through their methods, and those
+     * that are already bound were overridden.
+     */
+    private void createPropertyBindings(Inspector inspector,
         Type type,
-        Map<String, MethodBinding<?>> methodBindings) {
+        boolean interfaceType,
+        Map<String, PropertyBinding<?>> propertyBindings) {
       Class<?> rawType = Types.getRawType(type);
-      boolean platformType = isPlatformType(rawType);
-      for (final Method method : rawType.getDeclaredMethods()) {
-        if (!includeMethod(platformType, method.getModifiers())) continue;
-        if (method.getParameterTypes().length != 0) continue;
-        if (method.getAnnotation(InspectorIgnored.class) != null) continue;
+      ClassMetadata metadata = inspector.validatesFields() && !interfaceType
+          ? ClassMetadata.fields(rawType)
+          : ClassMetadata.methods(rawType);
+      for (ClassMetadata.Property property : metadata.properties) {
+        String name = property.name();
+        if (interfaceType) {
+          // Non-public interface methods are helpers of default methods rather than accessors.
+          if (!Modifier.isPublic(property.member.getModifiers())) continue;
+          if (propertyBindings.containsKey(name)) continue;
+        }
 
         // Look up a type validator for this type.
-        Type returnType = Types.resolve(type, rawType, method.getGenericReturnType());
-        Set<? extends Annotation> annotations = Util.validationAnnotations(method);
+        Type propertyType = Types.resolve(type, rawType, property.type);
         Validator<Object> validator;
-        ValidatedBy validatedBy = method.getAnnotation(ValidatedBy.class);
+        ValidatedBy validatedBy = property.validatedBy;
         if (validatedBy != null) {
           Class<? extends Validator<?>>[] validatorClasses = validatedBy.value();
           if (validatorClasses.length == 0) {
             throw new IllegalArgumentException(
                 "No validators specified in @ValidatedBy annotation on type "
-                    + returnType
+                    + propertyType
                     + "#"
-                    + method.getName());
+                    + name);
           }
           try {
             if (validatorClasses.length == 1) {
               //noinspection unchecked
-              validator = (Validator<Object>) validatorClasses[0].newInstance();
+              validator = (Validator<Object>) inspector.delegateValidator(validatorClasses[0]);
             } else {
               Validator[] validators = new Validator[validatorClasses.length];
               for (int i = 0; i < validatorClasses.length; i++) {
-                Class<? extends Validator<?>> clazz = validatorClasses[i];
-                validators[i] = clazz.newInstance();
+                validators[i] = inspector.delegateValidator(validatorClasses[i]);
               }
               //noinspection unchecked
-              validator = CompositeValidator.of(validators);
+              validator = CompositeValidator.of(validators).withPolicyOf(inspector);
             }
           } catch (InstantiationException e) {
             throw new RuntimeException("Could not instantiate delegate validators "
                 + Arrays.toString(validatedBy.value())
                 + " for "
-                + method.getName()
+                + name
                 + ". Make sure they have public default constructors.");
           } catch (IllegalAccessException e) {
             throw new RuntimeException("Delegate validator "
                 + Arrays.toString(validatedBy.value())
                 + " for "
-                + method.getName()
+                + name
                 + " is not accessible. Make sure it has a public default constructor.");
           }
         } else {
-          validator = inspector.validator(returnType, annotations);
+          validator = SubtypeValidator.of(inspector, propertyType, property.qualifiers);
         }
 
-        boolean isPrimitive = method.getReturnType()
-            .isPrimitive();
-        if (!isPrimitive && !Util.hasNullable(method.getDeclaredAnnotations())) {
-          final Validator<Object> originalValidator = validator;
-          validator = new Validator<Object>() {
-            @Override public void validate(Object value) throws ValidationException {
-              if (value == null) {
-                throw new ValidationException("Returned value of "
-                    + method.getName()
-                    + "() was null.");
-              } else {
-                originalValidator.validate(value);
-              }
-            }
-          };
-        } else if (!isPrimitive) {
-          validator = validator.nullSafe();
-        }
+        // Create the binding between property and validator.
+        Getters.Getter getter = inspector.generatedGetters()
+            ? property.getter()
+            : property.reflectiveGetter();
 
-        // Create the binding between method and validator.
-        method.setAccessible(true);
-
-        // Store it using the method's name. If there was already a method with this name, fail!
-        String name = method.getName();
-        MethodBinding<Object> methodBinding = new MethodBinding<>(method, validator);
-        MethodBinding<?> replaced = methodBindings.put(name, methodBinding);
+        // Store it using the property's name. If there was already one with this name, fail!
+        PropertyBinding<Object> propertyBinding =
+            new PropertyBinding<>(property, getter, validator);
+        PropertyBinding<?> replaced = propertyBindings.put(name, propertyBinding);
         if (replaced != null) {
-          throw new IllegalArgumentException("Conflicting methods:\n"
+          throw new IllegalArgumentException((property.isField()
+              ? "Conflicting fields:\n"
+              : "Conflicting methods:\n")
               + "    "
-              + replaced.method
+              + replaced.property.member
               + "\n"
               + "    "
-              + methodBinding.method);
+              + property.member);
         }
       }
     }
-
-    /** Returns true if methods with {@code modifiers} are included in the emitted validator. */
-    private boolean includeMethod(boolean platformType, int modifiers) {
-      return !Modifier.isStatic(modifiers) && (Modifier.isPublic(modifiers) || Modifier.isProtected(
-          modifiers) || !platformType);
-    }
   };
 
   /**
@@ -176,45 +189,127 @@ final class ClassValidator<T> extends Validator<T> {
         || name.startsWith("scala.");
   }
 
-  private final ClassFactory<T> classFactory;
-  private final MethodBinding<?>[] methodsArray;
+  private final Class<?> rawType;
+  private final PropertyBinding<?>[] propertiesArray;
+  /** Runs the bindings in an order it adapts to what fails, or null to run them in name order. */
+  private final @Nullable AdaptiveOrder adaptiveOrder;
+  private final boolean writableStackTraces;
+  private final ErrorPolicy errorPolicy;
 
-  ClassValidator(ClassFactory<T> classFactory, Map<String, MethodBinding<?>> methodsMap) {
-    this.classFactory = classFactory;
-    this.methodsArray = methodsMap.values()
-        .toArray(new MethodBinding[methodsMap.size()]);
+  ClassValidator(Class<?> rawType,
+      Map<String, PropertyBinding<?>> propertiesMap,
+      Inspector inspector) {
+    this.rawType = rawType;
+    List<PropertyBinding<?>> properties = new ArrayList<>(propertiesMap.size());
+    for (PropertyBinding<?> propertyBinding : propertiesMap.values()) {
+      // A property that may be null and is validated by a no-op can't fail, so skip reading it.
+      if (!propertyBinding.nullable || !propertyBinding.validator.isNoOp()) {
+        properties.add(propertyBinding);
+      }
+    }
+    this.propertiesArray = properties.toArray(new PropertyBinding[properties.size()]);
+    this.errorPolicy = inspector.errorPolicy();
+    // Order only matters when validation stops at the first failure, and with two bindings or more.
+    this.adaptiveOrder = inspector.adaptsCheckOrder()
+        && errorPolicy.isFailFast()
+        && propertiesArray.length > 1
+        ? new AdaptiveOrder(propertiesArray)
+        : null;
+    this.writableStackTraces = inspector.writableStackTraces();
+  }
+
+  @Override boolean isNoOp() {
+    return propertiesArray.length == 0;
   }
 
   @Override public String toString() {
-    return "Validator(" + classFactory + ")";
+    return "Validator(" + rawType.getName() + ")";
+  }
+
+  /** Returns the binding of the property named {@code name}, or null if it isn't checked. */
+  @Nullable PropertyBinding<?> binding(String name) {
+    for (PropertyBinding<?> binding : propertiesArray) {
+      if (binding.name.equals(name)) return binding;
+    }
+    return null;
   }
 
   @Override public void validate(T validationTarget) throws ValidationException {
-    for (MethodBinding<?> methodBinding : methodsArray) {
-      try {
-        methodBinding.validate(validationTarget);
-      } catch (IllegalAccessException e) {
-        // Shouldn't happen, but just in case
-        throw new ValidationException(methodBinding.method.getName() + " is inaccessible.", e);
-      } catch (InvocationTargetException e) {
-        throw new ValidationException(methodBinding.method.getName()
-            + " threw an exception when called.", e);
-      }
+    check(validationTarget).throwIfInvalid(writableStackTraces);
+  }
+
+  @Override public ValidationResult check(T validationTarget) {
+    if (adaptiveOrder != null) return adaptiveOrder.check(validationTarget);
+    List<ValidationResult> failures = null;
+    for (PropertyBinding<?> propertyBinding : propertiesArray) {
+      ValidationResult result = propertyBinding.check(validationTarget);
+      if (result.isValid()) continue;
+      if (errorPolicy.isFailFast()) return result;
+      if (failures == null) failures = new ArrayList<>();
+      failures.add(result);
+      if (failures.size() == errorPolicy.maximumFailures) break;
     }
+    return ValidationResult.ofFailures(failures);
   }
 
-  static class MethodBinding<T> {
-    final Method method;
-    final Validator<T> validator;
+  /**
+   * Binds a validated method or field to the validator of its values. The binding checks for null
+   * itself, so it calls the validator that does the work directly, rather than through null-safe
+   * wrappers and composites of one.
+   */
+  static class PropertyBinding<T> {
+    final ClassMetadata.Property property;
+    final String name;
+    final Getters.Getter getter;
+    /** False if null values fail validation rather than skipping it. */
+    final boolean nullable;
+    Validator<T> validator;
+    /** True until a validator that's still being created is ready, and can be unwrapped too. */
+    private boolean deferred;
+
+    PropertyBinding(ClassMetadata.Property property,
+        Getters.Getter getter,
+        Validator<T> validator) {
+      this.property = property;
+      this.name = property.name();
+      this.getter = getter;
+      this.nullable = property.nullable;
+      this.validator = validator.nonNullDelegate();
+      this.deferred = this.validator instanceof Inspector.DeferredAdapter;
+    }
 
-    MethodBinding(Method method, Validator<T> validator) {
-      this.method = method;
-      this.validator = validator;
+    /** Checks the property of {@code validationTarget}, failing at its name. */
+    ValidationResult check(Object validationTarget) {
+      return checkValue(validationTarget).prependProperty(name);
     }
 
-    @SuppressWarnings({ "unchecked", "RedundantThrows" }) void validate(Object validationTarget)
-        throws IllegalAccessException, InvocationTargetException {
-      validator.validate((T) method.invoke(validationTarget));
+    @SuppressWarnings("unchecked") private ValidationResult checkValue(Object validationTarget) {
+      T value;
+      try {
+        value = (T) getter.get(validationTarget);
+      } catch (IllegalAccessException e) {
+        // Shouldn't happen, but just in case
+        return ValidationResult.invalidFormat(e, "%s is inaccessible.", name);
+      } catch (Throwable e) {
+        return ValidationResult.invalidFormat(e, "%s threw an exception when called.", name);
+      }
+      if (value == null) {
+        if (nullable) return ValidationResult.valid();
+        return ValidationResult.invalidFormat(property.isField()
+            ? "Field %s was null."
+            : "Returned value of %s() was null.", name);
+      }
+      Validator<T> validator = this.validator;
+      ValidationResult result = validator.check(value);
+      if (deferred) {
+        // Racing threads may each unwrap it. Either way they get the same validator.
+        Validator<T> delegate = validator.nonNullDelegate();
+        if (delegate != validator) {
+          this.validator = delegate;
+          deferred = false;
+        }
+      }
+      return result;
     }
   }
 }
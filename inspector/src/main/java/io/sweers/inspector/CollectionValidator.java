@@ -2,6 +2,7 @@ package io.sweers.inspector;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -23,21 +24,44 @@ class CollectionValidator<C extends Collection<T>, T> extends Validator<C> {
   };
 
   private final Validator<T> elementValidator;
+  private final boolean writableStackTraces;
+  private final ErrorPolicy errorPolicy;
 
-  private CollectionValidator(Validator<T> elementValidator) {
+  private CollectionValidator(Validator<T> elementValidator, Inspector inspector) {
     this.elementValidator = elementValidator;
+    this.writableStackTraces = inspector.writableStackTraces();
+    this.errorPolicy = inspector.errorPolicy();
   }
 
+  @SuppressWarnings("unchecked") // The no-op validator accepts anything.
   static <T> Validator<Collection<T>> newCollectionValidator(Type type, Inspector inspector) {
     Type elementType = Types.collectionElementType(type, Collection.class);
-    Validator<T> elementValidator = inspector.validator(elementType);
-    return new CollectionValidator<>(elementValidator);
+    Validator<T> elementValidator =
+        SubtypeValidator.of(inspector, elementType, Util.NO_ANNOTATIONS);
+    // Don't iterate over elements just to do nothing with them.
+    if (elementValidator.isNoOp()) return (Validator) StandardValidators.NO_OP_VALIDATOR;
+    return new CollectionValidator<>(elementValidator, inspector);
   }
 
   @Override public void validate(C validationTarget) throws ValidationException {
+    check(validationTarget).throwIfInvalid(writableStackTraces);
+  }
+
+  @Override public ValidationResult check(C validationTarget) {
+    List<ValidationResult> failures = null;
+    // Elements of sets are at their index in iteration order.
+    int index = -1;
     for (T element : validationTarget) {
-      elementValidator.validate(element);
+      index++;
+      ValidationResult result = elementValidator.check(element);
+      if (result.isValid()) continue;
+      result = result.prependIndex(index);
+      if (errorPolicy.isFailFast()) return result;
+      if (failures == null) failures = new ArrayList<>();
+      failures.add(result);
+      if (failures.size() == errorPolicy.maximumFailures) break;
     }
+    return ValidationResult.ofFailures(failures);
   }
 
   @Override public String toString() {
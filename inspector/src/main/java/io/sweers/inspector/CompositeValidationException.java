@@ -1,6 +1,10 @@
 package io.sweers.inspector;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import javax.annotation.Nullable;
 
 import static java.util.Collections.unmodifiableList;
 
@@ -10,12 +14,37 @@ import static java.util.Collections.unmodifiableList;
 public class CompositeValidationException extends ValidationException {
 
   private final List<ValidationException> exceptions;
+  /** The message listing every exception's, once it's been read. */
+  private volatile @Nullable String message;
 
   CompositeValidationException(List<ValidationException> exceptions) {
-    super(createMessage(exceptions));
+    this(exceptions, true);
+  }
+
+  CompositeValidationException(List<ValidationException> exceptions, boolean writableStackTrace) {
+    super(null, null, null, null, writableStackTrace);
     this.exceptions = exceptions;
   }
 
+  /**
+   * Prepends {@code prefix} to the path of every exception. Its own {@linkplain #path() path}
+   * stays empty, since they each have their own.
+   */
+  @Override void prepend(ValidationPath prefix) {
+    for (ValidationException exception : exceptions) {
+      exception.prepend(prefix);
+    }
+  }
+
+  @Override public String getMessage() {
+    String message = this.message;
+    if (message == null) {
+      message = createMessage(exceptions);
+      this.message = message;
+    }
+    return message;
+  }
+
   /**
    * @return the list of discovered exceptions.
    */
@@ -24,16 +53,21 @@ public class CompositeValidationException extends ValidationException {
   }
 
   private static String createMessage(List<ValidationException> exceptions) {
+    List<String> messages = new ArrayList<>(exceptions.size());
+    for (ValidationException exception : exceptions) {
+      messages.add(exception.getMessage());
+    }
+    return createMessage(messages);
+  }
+
+  static String createMessage(Collection<String> messages) {
     StringBuilder builder = new StringBuilder();
-    builder.append("Multiple validation exceptions found! Exceptions: [\n")
-        .append(exceptions.get(0)
-            .getMessage());
-    if (exceptions.size() > 1) {
-      for (int i = 1; i < exceptions.size(); i++) {
-        ValidationException exception = exceptions.get(i);
-        builder.append(",\n")
-            .append(exception.getMessage());
-      }
+    builder.append("Multiple validation exceptions found! Exceptions: [\n");
+    Iterator<String> iterator = messages.iterator();
+    builder.append(iterator.next());
+    while (iterator.hasNext()) {
+      builder.append(",\n")
+          .append(iterator.next());
     }
     return builder.append("\n]")
         .toString();
@@ -7,7 +7,19 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 
 /**
- * A convenience {@link Validator} that can compose multiple validators.
+ * A convenience {@link Validator} that can compose multiple validators. By default every one of
+ * them runs and all of their failures are reported; use {@link #withPolicy} to change that.
+ *
+ * <p>Nested composites that collect every failure are inlined into a composite that collects
+ * every failure too. Their failures are reported directly in the outer exception's {@link
+ * CompositeValidationException#getExceptions()}, rather than in a nested {@link
+ * CompositeValidationException} of their own. Under any other policy, or with any other policy of
+ * their own, nested composites are kept as they are, and each counts as one failure.
+ *
+ * <p>Composites don't follow an inspector's {@linkplain Inspector.Builder#errorPolicy error policy}
+ * on their own, since {@link #of} isn't given one. That default predates error policies, and is
+ * kept so that existing composites keep reporting every failure. Use {@link #withPolicyOf} to
+ * follow an inspector's policy instead, as composites created for {@link ValidatedBy} do.
  */
 public final class CompositeValidator<T> extends Validator<T> {
 
@@ -26,37 +38,105 @@ public final class CompositeValidator<T> extends Validator<T> {
     for (Validator<? super T> validator : validators) {
       list.add(validator);
     }
-    return new CompositeValidator<>(list);
+    return new CompositeValidator<>(list, ErrorPolicy.collectAll());
   }
 
   public static <T> CompositeValidator<T> of(List<Validator<? super T>> validators) {
     if (validators == null) {
       throw new NullPointerException("validators are null");
     }
-    return new CompositeValidator<>(unmodifiableList(validators));
+    return new CompositeValidator<>(unmodifiableList(validators), ErrorPolicy.collectAll());
   }
 
+  /** The validators as they were given, which {@link #withPolicy} composes anew. */
+  private final List<Validator<? super T>> children;
+  /** The validators that run, which are flattened if this collects every failure. */
   private final List<Validator<? super T>> validators;
+  private final ErrorPolicy policy;
 
-  private CompositeValidator(List<Validator<? super T>> validators) {
-    this.validators = validators;
+  private CompositeValidator(List<Validator<? super T>> children, ErrorPolicy policy) {
+    this.children = children;
+    this.validators = flatten(children, policy);
+    this.policy = policy;
   }
 
-  @Override public void validate(T t) throws CompositeValidationException {
-    List<ValidationException> exceptions = new ArrayList<>();
-    for (Validator<? super T> validator : validators) {
-      try {
-        validator.validate(t);
-      } catch (ValidationException e) {
-        exceptions.add(e);
+  /**
+   * Returns a validator that composes the same validators, collecting failures per
+   * {@code policy}. Validators always run in the order they were given, even with {@link
+   * Inspector.Builder#adaptiveCheckOrder}, so when {@code policy} fails fast, each one may rely on
+   * the ones before it having passed.
+   */
+  public CompositeValidator<T> withPolicy(ErrorPolicy policy) {
+    if (policy == null) throw new IllegalArgumentException("policy == null");
+    if (policy.equals(this.policy)) return this;
+    return new CompositeValidator<>(children, policy);
+  }
+
+  /**
+   * Returns a validator that composes the same validators, collecting failures per the policy
+   * {@linkplain Inspector.Builder#errorPolicy configured} on {@code inspector}. If none was
+   * configured, this is returned as-is, so it keeps collecting every failure rather than taking the
+   * fail-fast default of the inspector's own validators. This is how composites made up with {@link
+   * ValidatedBy} are created.
+   */
+  public CompositeValidator<T> withPolicyOf(Inspector inspector) {
+    if (inspector == null) throw new IllegalArgumentException("inspector == null");
+    ErrorPolicy policy = inspector.configuredErrorPolicy();
+    return policy != null ? withPolicy(policy) : this;
+  }
+
+  /**
+   * Returns {@code validators} without no-ops, and, if {@code policy} collects all failures, with
+   * the children of nested composites that do the same in place of the composites. Either way the
+   * same checks run, through fewer calls. Other policies stop after a number of failures, which a
+   * nested composite's would change if they were inlined.
+   */
+  private static <T> List<Validator<? super T>> flatten(List<Validator<? super T>> validators,
+      ErrorPolicy policy) {
+    boolean inline = policy.equals(ErrorPolicy.collectAll());
+    List<Validator<? super T>> result = null;
+    for (int i = 0, size = validators.size(); i < size; i++) {
+      Validator<? super T> validator = validators.get(i);
+      boolean collectsAll = inline
+          && validator instanceof CompositeValidator
+          && ((CompositeValidator<? super T>) validator).policy.equals(ErrorPolicy.collectAll());
+      if (validator.isNoOp() || collectsAll) {
+        if (result == null) result = new ArrayList<>(validators.subList(0, i));
+        if (collectsAll) {
+          result.addAll(((CompositeValidator<? super T>) validator).validators);
+        }
+      } else if (result != null) {
+        result.add(validator);
       }
     }
-    if (!exceptions.isEmpty()) {
-      if (exceptions.size() == 1) {
-        throw exceptions.get(0);
-      } else {
-        throw new CompositeValidationException(exceptions);
-      }
+    return result != null ? unmodifiableList(result) : validators;
+  }
+
+  @Override boolean isNoOp() {
+    return validators.isEmpty();
+  }
+
+  @SuppressWarnings("unchecked") // A lone validator of a supertype accepts every T.
+  @Override Validator<T> nonNullDelegate() {
+    // A lone validator's exceptions are thrown as-is, so it can be called directly.
+    if (validators.size() == 1) return ((Validator<T>) validators.get(0)).nonNullDelegate();
+    return this;
+  }
+
+  @Override public void validate(T t) throws CompositeValidationException {
+    check(t).throwIfInvalid();
+  }
+
+  @Override public ValidationResult check(T t) {
+    List<ValidationResult> failures = null;
+    for (Validator<? super T> validator : validators) {
+      ValidationResult result = validator.check(t);
+      if (result.isValid()) continue;
+      if (policy.isFailFast()) return result;
+      if (failures == null) failures = new ArrayList<>();
+      failures.add(result);
+      if (failures.size() == policy.maximumFailures) break;
     }
+    return ValidationResult.ofFailures(failures);
   }
 }
@@ -0,0 +1,98 @@
+package io.sweers.inspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * How many failures validation collects before it stops. Failing fast is the cheapest: validation
+ * stops at the first failure, and nothing is allocated unless there is one. Collecting reports
+ * every failure, or up to a maximum, in one pass, as a {@link CompositeValidationException} when
+ * there's more than one.
+ *
+ * @see Inspector.Builder#errorPolicy(ErrorPolicy)
+ * @see CompositeValidator#withPolicy(ErrorPolicy)
+ */
+public final class ErrorPolicy {
+  private static final ErrorPolicy FAIL_FAST = new ErrorPolicy(1);
+  private static final ErrorPolicy COLLECT_ALL = new ErrorPolicy(Integer.MAX_VALUE);
+
+  /** Stops at the first failure. */
+  public static ErrorPolicy failFast() {
+    return FAIL_FAST;
+  }
+
+  /** Collects every failure. */
+  public static ErrorPolicy collectAll() {
+    return COLLECT_ALL;
+  }
+
+  /** Collects failures until there are {@code maximumFailures} of them. */
+  public static ErrorPolicy collectUpTo(int maximumFailures) {
+    if (maximumFailures <= 0) {
+      throw new IllegalArgumentException("maximumFailures <= 0: " + maximumFailures);
+    }
+    if (maximumFailures == 1) return FAIL_FAST;
+    return new ErrorPolicy(maximumFailures);
+  }
+
+  final int maximumFailures;
+
+  private ErrorPolicy(int maximumFailures) {
+    this.maximumFailures = maximumFailures;
+  }
+
+  public boolean isFailFast() {
+    return maximumFailures == 1;
+  }
+
+  /**
+   * Adds {@code failure} to {@code failures}, and throws if validation should stop there. Returns
+   * the failures collected so far, to pass to the next call, or to {@link #throwIfAny} once every
+   * check has run. Validators generated by {@code inspector-compiler} collect failures this way,
+   * and hand-written ones can too:
+   *
+   * <pre><code>
+   * List&lt;ValidationException&gt; failures = null;
+   * if (person.name() == null) {
+   *   failures = errorPolicy.collect(failures, new ValidationException("name is null"));
+   * }
+   * ...
+   * errorPolicy.throwIfAny(failures);
+   * </code></pre>
+   *
+   * @param failures the failures collected so far, or null if there are none yet.
+   */
+  public List<ValidationException> collect(@Nullable List<ValidationException> failures,
+      ValidationException failure) throws ValidationException {
+    if (maximumFailures == 1) throw failure;
+    if (failures == null) failures = new ArrayList<>();
+    failures.add(failure);
+    if (failures.size() == maximumFailures) throw new CompositeValidationException(failures);
+    return failures;
+  }
+
+  /**
+   * Throws the {@code failures} collected by {@link #collect}, if there are any: a lone failure
+   * as-is, and more than one as a {@link CompositeValidationException}.
+   */
+  public void throwIfAny(@Nullable List<ValidationException> failures)
+      throws ValidationException {
+    if (failures == null) return;
+    throw failures.size() == 1 ? failures.get(0) : new CompositeValidationException(failures);
+  }
+
+  @Override public boolean equals(Object o) {
+    return o instanceof ErrorPolicy && ((ErrorPolicy) o).maximumFailures == maximumFailures;
+  }
+
+  @Override public int hashCode() {
+    return maximumFailures;
+  }
+
+  @Override public String toString() {
+    if (maximumFailures == 1) return "ErrorPolicy.failFast()";
+    if (maximumFailures == Integer.MAX_VALUE) return "ErrorPolicy.collectAll()";
+    return "ErrorPolicy.collectUpTo(" + maximumFailures + ")";
+  }
+}
@@ -0,0 +1,222 @@
+package io.sweers.inspector;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import javax.annotation.Nullable;
+
+/**
+ * Creates {@link Getter getters} for validated methods and fields. Where {@code java.lang.invoke}
+ * is available they're bound once: as a class spun by {@code LambdaMetafactory} when the method is
+ * accessible from here, or as a method handle otherwise. Only the spun class lets the JIT inline
+ * the call, since it calls the method directly. A method handle in an instance field isn't a
+ * constant to the JIT, so each call still goes through the handle. It skips the access checks and
+ * argument boxing of {@link Method#invoke}, though, which is what's left on platforms without
+ * method handles, such as older Android versions. Fields are bound as method handles, since {@code
+ * LambdaMetafactory} only takes methods. Var handles would work too, but they're no faster for
+ * plain reads and need Java 9.
+ *
+ * <p>Binding costs far more than a reflective call, so getters start out reflective and are only
+ * bound once they've been called often enough for that to pay off. Most validators in a large model
+ * graph are used rarely, if ever, and this keeps them cheap to create.
+ */
+final class Getters {
+  /** Calls a method that takes no arguments, or reads a field. */
+  interface Getter {
+    /** Returns the method's result or field's value, throwing what the method throws as-is. */
+    @Nullable Object get(Object target) throws Throwable;
+  }
+
+  private static final boolean METHOD_HANDLES_AVAILABLE = isMethodHandlesAvailable();
+  /**
+   * The number of reflective calls before a getter is bound, like {@link Method#invoke}'s. This is
+   * documented on {@link Inspector.Builder#generatedGetters}, and measured by {@code
+   * ColdStartBenchmark} in the tests.
+   */
+  static final int BIND_THRESHOLD = 16;
+
+  private Getters() {
+  }
+
+  /** Returns a getter for {@code member}, a method or field that must already be accessible. */
+  static Getter of(Member member) {
+    if (METHOD_HANDLES_AVAILABLE) return new TieredGetter(member);
+    return reflective(member);
+  }
+
+  /** Returns a getter that's bound to {@code member} right away, if that's possible. */
+  static Getter bound(Member member) {
+    if (METHOD_HANDLES_AVAILABLE) {
+      Getter getter = BoundGetters.of(member);
+      if (getter != null) return getter;
+    }
+    return reflective(member);
+  }
+
+  /**
+   * Returns a getter for {@code member} that goes through {@link Method#invoke} or {@link
+   * Field#get}, for when {@link Inspector.Builder#generatedGetters} is disabled.
+   */
+  static Getter reflective(Member member) {
+    if (member instanceof Field) return new FieldGetter((Field) member);
+    return new ReflectiveGetter((Method) member);
+  }
+
+  private static boolean isMethodHandlesAvailable() {
+    try {
+      Class.forName("java.lang.invoke.MethodHandles");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /** Kept separate so that nothing here is loaded on platforms without method handles. */
+  private static final class BoundGetters {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE =
+        MethodType.methodType(Object.class, Object.class);
+    /** {@code LambdaMetafactory.metafactory}, which only exists on Java 8 and later. */
+    private static final @Nullable MethodHandle METAFACTORY = findMetafactory();
+
+    static @Nullable Getter of(Member member) {
+      if (member instanceof Field) {
+        try {
+          return new MethodHandleGetter(LOOKUP.unreflectGetter((Field) member)
+              .asType(GETTER_TYPE));
+        } catch (IllegalAccessException e) {
+          return null;
+        }
+      }
+      Method method = (Method) member;
+      MethodHandle handle;
+      try {
+        handle = LOOKUP.unreflect(method);
+      } catch (IllegalAccessException e) {
+        return null;
+      }
+      if (METAFACTORY != null && isAccessible(method)) {
+        try {
+          CallSite callSite = (CallSite) METAFACTORY.invoke(LOOKUP,
+              "get",
+              MethodType.methodType(Getter.class),
+              GETTER_TYPE,
+              handle,
+              MethodType.methodType(Object.class, method.getDeclaringClass()));
+          return (Getter) callSite.getTarget()
+              .invoke();
+        } catch (Throwable ignored) {
+          // Fall back to the method handle.
+        }
+      }
+      return new MethodHandleGetter(handle.asType(GETTER_TYPE));
+    }
+
+    /**
+     * Returns true if a class spun here can call {@code method} directly, rather than only through
+     * the access that {@link Method#setAccessible} granted. That also requires its class to be
+     * visible from our class loader, which has the bonus that the spun class can't keep a class
+     * loader reachable that would otherwise be unloaded.
+     */
+    private static boolean isAccessible(Method method) {
+      if (!Modifier.isPublic(method.getModifiers())) return false;
+      Class<?> declaringClass = method.getDeclaringClass();
+      for (Class<?> c = declaringClass; c != null; c = c.getEnclosingClass()) {
+        if (!Modifier.isPublic(c.getModifiers())) return false;
+      }
+      try {
+        return Class.forName(declaringClass.getName(), false, Getters.class.getClassLoader())
+            == declaringClass;
+      } catch (ClassNotFoundException e) {
+        return false;
+      }
+    }
+
+    private static @Nullable MethodHandle findMetafactory() {
+      try {
+        Class<?> metafactory = Class.forName("java.lang.invoke.LambdaMetafactory");
+        return LOOKUP.findStatic(metafactory,
+            "metafactory",
+            MethodType.methodType(CallSite.class,
+                MethodHandles.Lookup.class,
+                String.class,
+                MethodType.class,
+                MethodType.class,
+                MethodHandle.class,
+                MethodType.class));
+      } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Calls through reflection until it's been called {@link #BIND_THRESHOLD} times, then binds.
+   * Racing threads may each bind, and may see a stale delegate for a while. Either way they get a
+   * working getter.
+   */
+  private static final class TieredGetter implements Getter {
+    private final Member member;
+    private Getter delegate;
+    private int calls;
+
+    TieredGetter(Member member) {
+      this.member = member;
+      this.delegate = reflective(member);
+    }
+
+    @Override public @Nullable Object get(Object target) throws Throwable {
+      if (calls < BIND_THRESHOLD && ++calls == BIND_THRESHOLD) {
+        delegate = bound(member);
+      }
+      return delegate.get(target);
+    }
+  }
+
+  /** Calls through a handle that isn't constant, so it isn't inlined, unlike a spun class. */
+  private static final class MethodHandleGetter implements Getter {
+    private final MethodHandle handle;
+
+    MethodHandleGetter(MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override public @Nullable Object get(Object target) throws Throwable {
+      return (Object) handle.invokeExact(target);
+    }
+  }
+
+  private static final class ReflectiveGetter implements Getter {
+    private final Method method;
+
+    ReflectiveGetter(Method method) {
+      this.method = method;
+    }
+
+    @Override public @Nullable Object get(Object target) throws Throwable {
+      try {
+        return method.invoke(target);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static final class FieldGetter implements Getter {
+    private final Field field;
+
+    FieldGetter(Field field) {
+      this.field = field;
+    }
+
+    @Override public @Nullable Object get(Object target) throws IllegalAccessException {
+      return field.get(target);
+    }
+  }
+}
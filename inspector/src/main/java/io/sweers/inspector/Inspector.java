@@ -1,6 +1,9 @@
 package io.sweers.inspector;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -9,6 +12,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 
 /**
@@ -26,17 +34,118 @@ public final class Inspector {
     BUILT_IN_FACTORIES.add(ClassValidator.FACTORY);
   }
 
+  /** Cached for keys that no factory could create a validator for. */
+  private static final Validator<Object> MISSING_VALIDATOR = new Validator<Object>() {
+    @Override public void validate(Object validationTarget) throws ValidationException {
+      throw new AssertionError();
+    }
+
+    @Override public String toString() {
+      return "MissingValidator";
+    }
+  };
+
   @SuppressWarnings("ThreadLocalUsage")
   private final ThreadLocal<List<DeferredAdapter<?>>> reentrantCalls = new ThreadLocal<>();
   private final List<Validator.Factory> factories;
-  private final Map<Object, Validator<?>> adapterCache = new LinkedHashMap<>();
+  private final ValidatorCache adapterCache;
+  private final ConcurrentMap<Object, PendingValidator> pendingValidators =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Validator.Factory, ValidatorCache> nextValidatorCache =
+      new ConcurrentHashMap<>();
+  private final @Nullable Set<Object> recordedKeys;
+  private final int maximumCacheSize;
+  private final boolean generatedGetters;
+  private final boolean validatesFields;
+  private final boolean validatesSubtypes;
+  private final boolean adaptiveCheckOrder;
+  private final boolean stacklessExceptions;
+  private final @Nullable ErrorPolicy errorPolicy;
+  /**
+   * Stored in their classes, so that this doesn't keep the class loaders of the validators it
+   * instantiated reachable, such as a redeployed plugin's.
+   */
+  private final ClassSlots<Validator<?>> delegateValidators = ClassSlots.create();
+  /**
+   * The inspector this one was derived from with {@link #newBuilder()}, if any. It's held weakly,
+   * so that chains of derived inspectors don't keep every ancestor's validators reachable. Cleared
+   * by {@link LiveInspector} once this one has taken everything it can from it.
+   */
+  private volatile @Nullable WeakReference<Inspector> parent;
+  private final Handle handle;
+  /** True once {@link #freeze()} was called, after which no more validators are created. */
+  private volatile boolean frozen;
+  /** The number of threads creating validators, which need their lookups recorded. */
+  private final AtomicInteger constructions = new AtomicInteger();
+  private final ValidatorKey.Registry keys;
+  /**
+   * Validators indexed by {@link ValidatorKey#index}. Grown, and written, while holding it. Only
+   * validators that are in {@link #adapterCache} have a slot, and they lose it when evicted.
+   */
+  private volatile Validator<?>[] slots = new Validator<?>[0];
 
   Inspector(Builder builder) {
     List<Validator.Factory> factories =
         new ArrayList<>(builder.factories.size() + BUILT_IN_FACTORIES.size());
-    factories.addAll(builder.factories);
+    indexRegisteredValidators(builder.factories, factories);
     factories.addAll(BUILT_IN_FACTORIES);
     this.factories = Collections.unmodifiableList(factories);
+    this.recordedKeys = builder.recordWarmUpManifest
+        ? Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>())
+        : null;
+    this.parent = builder.parent != null ? new WeakReference<>(builder.parent) : null;
+    this.maximumCacheSize = builder.maximumCacheSize;
+    this.generatedGetters = builder.generatedGetters;
+    this.validatesFields = builder.validateFields;
+    this.validatesSubtypes = builder.validateSubtypes;
+    this.adaptiveCheckOrder = builder.adaptiveCheckOrder;
+    this.stacklessExceptions = builder.stacklessExceptions;
+    this.errorPolicy = builder.errorPolicy;
+    this.adapterCache = new ValidatorCache(maximumCacheSize, new ValidatorCache.EvictionListener() {
+      @Override public void onEviction(Object cacheKey, Validator<?> validator) {
+        clearSlots(cacheKey, validator);
+      }
+    });
+    this.keys = builder.parent != null ? builder.parent.keys : new ValidatorKey.Registry();
+    this.handle = new Handle(this);
+  }
+
+  /**
+   * Copies {@code factories} into {@code result}, merging each run of consecutive exact-type
+   * registrations into a single hashed lookup. Runs are kept in place so that registrations still
+   * take precedence over factories added after them and not over those added before them.
+   */
+  private static void indexRegisteredValidators(List<Validator.Factory> factories,
+      List<Validator.Factory> result) {
+    List<RegisteredValidators> run = new ArrayList<>();
+    for (Validator.Factory factory : factories) {
+      if (factory instanceof RegisteredValidators) {
+        run.add((RegisteredValidators) factory);
+      } else {
+        addRun(run, result);
+        result.add(factory);
+      }
+    }
+    addRun(run, result);
+  }
+
+  private static void addRun(List<RegisteredValidators> run, List<Validator.Factory> result) {
+    if (run.size() == 1) {
+      // Keep it as-is, so that child inspectors can tell that it's the same factory.
+      result.add(run.get(0));
+    } else if (run.size() > 1) {
+      Map<Object, Validator<?>> validators = new LinkedHashMap<>();
+      for (RegisteredValidators registered : run) {
+        for (Map.Entry<Object, Validator<?>> entry : registered.validators.entrySet()) {
+          // The first registration for a type wins, as it would in a linear search.
+          if (!validators.containsKey(entry.getKey())) {
+            validators.put(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+      result.add(new RegisteredValidators(validators));
+    }
+    run.clear();
   }
 
   /** Returns a validator for {@code type}, creating it if necessary. */
@@ -45,15 +154,99 @@ public final class Inspector {
   }
 
   /** Returns a validator for {@code type}, creating it if necessary. */
+  @SuppressWarnings("unchecked") // Factories are required to return only matching Validators.
   public <T> Validator<T> validator(Class<T> type) {
+    // Fast path: plain classes are their own canonical types and cache keys.
+    if (!type.isArray() && constructions.get() == 0) {
+      Validator<?> cached = adapterCache.get(type);
+      if (cached != null && cached != MISSING_VALIDATOR) return (Validator<T>) cached;
+    }
     return validator(type, Util.NO_ANNOTATIONS);
   }
 
 
+  /**
+   * Returns the validator for {@code key}, creating it if necessary. Once it's created this is an
+   * array index, or a per-class lookup for plain classes, so callers that validate the same type
+   * repeatedly should hold on to a key from {@link #key} rather than looking the type up each time.
+   */
+  @SuppressWarnings("unchecked") // Keys are only created for validators of their type.
+  public <T> Validator<T> validator(ValidatorKey<T> key) {
+    Validator<?>[] slots = this.slots;
+    int index = key.index;
+    if (key.registry == keys.id && index < slots.length) {
+      Validator<?> validator = slots[index];
+      if (validator != null) return (Validator<T>) validator;
+    }
+    return slotValidator(key);
+  }
+
+  @SuppressWarnings("unchecked") // Keys are only created for validators of their type.
+  private <T> Validator<T> slotValidator(ValidatorKey<T> key) {
+    if (key.index == ValidatorKey.NO_SLOT) return validator((Class<T>) key.cacheKey);
+    Validator<T> validator = validator(key.type, key.annotations);
+    // Keys from unrelated inspectors still work, they just don't get a slot. Neither do stubs for
+    // validators that are still being created.
+    if (key.registry != keys.id || validator instanceof DeferredAdapter) return validator;
+    synchronized (keys) {
+      // Evictions clear slots while holding the same lock, so this can't fill one that was cleared.
+      if (adapterCache.get(key.cacheKey) != validator) return validator;
+      Validator<?>[] slots = this.slots;
+      if (key.index >= slots.length) {
+        slots = Arrays.copyOf(slots, Math.max(key.index + 1, slots.length * 2));
+      }
+      slots[key.index] = validator;
+      this.slots = slots;
+    }
+    return validator;
+  }
+
+  /**
+   * Clears the slots of {@code validator}, which was just evicted for {@code cacheKey}, and forgets
+   * its key. Keys that are still held keep working, but may have been given slots of their own,
+   * so every slot is checked. Evictions are rare next to lookups, and slots are few.
+   */
+  private void clearSlots(Object cacheKey, Validator<?> validator) {
+    synchronized (keys) {
+      keys.remove(cacheKey);
+      Validator<?>[] slots = this.slots;
+      for (int i = 0; i < slots.length; i++) {
+        if (slots[i] == validator) slots[i] = null;
+      }
+      this.slots = slots;
+    }
+  }
+
+  /**
+   * Returns a key for the validator of {@code type}. Obtaining a key doesn't create the validator;
+   * that happens the first time it's passed to {@link #validator(ValidatorKey)}.
+   */
+  public <T> ValidatorKey<T> key(Class<T> type) {
+    return key(type, Util.NO_ANNOTATIONS);
+  }
+
+  /** Returns a key for the validator of {@code type}. */
+  public <T> ValidatorKey<T> key(Type type) {
+    return key(type, Util.NO_ANNOTATIONS);
+  }
+
+  /** Returns a key for the validator of {@code type} with {@code annotationType}. */
+  public <T> ValidatorKey<T> key(Type type, Class<? extends Annotation> annotationType) {
+    return key(type, Types.qualifierAnnotations(annotationType));
+  }
+
+  /** Returns a key for the validator of {@code type} with {@code annotations}. */
+  @SuppressWarnings("unchecked") // The caller asserts the key's type.
+  public <T> ValidatorKey<T> key(Type type, Set<? extends Annotation> annotations) {
+    if (type == null) throw new IllegalArgumentException("type == null");
+    if (annotations == null) throw new IllegalArgumentException("annotations == null");
+    type = Types.canonicalize(type);
+    return (ValidatorKey<T>) keys.key(type, annotations, cacheKey(type, annotations));
+  }
+
   /** Returns a validator for {@code type} with {@code annotationType}, creating it if necessary. */
   public <T> Validator<T> validator(Type type, Class<? extends Annotation> annotationType) {
-    return validator(type,
-        Collections.singleton(Types.createValidationQualifierImplementation(annotationType)));
+    return validator(type, Types.qualifierAnnotations(annotationType));
   }
 
   /** Returns a validator for {@code type} and {@code annotations}, creating it if necessary. */
@@ -63,13 +256,14 @@ public final class Inspector {
 
     // If there's an equivalent adapter in the cache, we're done!
     Object cacheKey = cacheKey(type, annotations);
-    synchronized (adapterCache) {
-      Validator<?> result = adapterCache.get(cacheKey);
-      if (result != null) return (Validator<T>) result;
-    }
+    // Only threads that are creating validators have lookups to record, or reentrant calls.
+    List<DeferredAdapter<?>> deferredAdapters =
+        constructions.get() != 0 ? reentrantCalls.get() : null;
+    if (deferredAdapters != null) recordDependency(deferredAdapters, cacheKey);
+    Validator<?> cached = adapterCache.get(cacheKey);
+    if (cached != null) return cachedValidator(cached, type, annotations);
 
     // Short-circuit if this is a reentrant call.
-    List<DeferredAdapter<?>> deferredAdapters = reentrantCalls.get();
     if (deferredAdapters != null) {
       for (DeferredAdapter<?> deferredAdapter : deferredAdapters) {
         if (deferredAdapter.cacheKey == null) {
@@ -80,45 +274,266 @@ public final class Inspector {
           return (Validator<T>) deferredAdapter;
         }
       }
-    } else {
+    }
+
+    if (frozen) throw frozen(type, annotations);
+
+    // Claim this key so that only one thread creates its validator.
+    PendingValidator pending = new PendingValidator();
+    PendingValidator existing;
+    while ((existing = pendingValidators.putIfAbsent(cacheKey, pending)) != null) {
+      if (deferredAdapters != null) {
+        // We're in the middle of creating other validators, and the thread creating this one may
+        // be waiting on ours. Rather than risk a deadlock, hand out a stub that resolves on use.
+        return new DeferredAdapter<>(handle, type, annotations);
+      }
+      existing.await();
+      cached = adapterCache.get(cacheKey);
+      if (cached != null) return cachedValidator(cached, type, annotations);
+    }
+
+    try {
+      // Another thread may have finished this validator between our cache check and our claim.
+      cached = adapterCache.get(cacheKey);
+      if (cached != null) return cachedValidator(cached, type, annotations);
+      return createValidator(type, annotations, cacheKey);
+    } finally {
+      pendingValidators.remove(cacheKey, pending);
+      pending.finish();
+    }
+  }
+
+  /** Asks each factory to create a validator for a key that this thread has claimed. */
+  @SuppressWarnings("unchecked") // Factories are required to return only matching Validators.
+  private <T> Validator<T> createValidator(Type type,
+      Set<? extends Annotation> annotations,
+      Object cacheKey) {
+    List<DeferredAdapter<?>> deferredAdapters = reentrantCalls.get();
+    boolean root = deferredAdapters == null;
+    if (root) {
       deferredAdapters = new ArrayList<>();
       reentrantCalls.set(deferredAdapters);
     }
 
     // Prepare for re-entrant calls, then ask each factory to create a type adapter.
-    DeferredAdapter<T> deferredAdapter = new DeferredAdapter<>(cacheKey);
+    DeferredAdapter<T> deferredAdapter = new DeferredAdapter<>(cacheKey, type, annotations);
     deferredAdapters.add(deferredAdapter);
+    if (root) constructions.incrementAndGet();
+    Validator<?> result = null;
+    Validator.Factory producer = null;
     try {
-      for (Validator.Factory factory : factories) {
-        Validator<T> result = (Validator<T>) factory.create(type, annotations, this);
-        if (result != null) {
-          deferredAdapter.ready(result);
-          synchronized (adapterCache) {
-            adapterCache.put(cacheKey, result);
+      Inspector parent = parent();
+      Resolution shared =
+          parent != null ? sharedResolution(parent, type, annotations, cacheKey) : null;
+      if (shared != null) {
+        result = shared.validator;
+        producer = shared.producer;
+      } else {
+        for (Validator.Factory factory : factories) {
+          result = factory.create(type, annotations, this);
+          if (result != null) {
+            producer = factory;
+            break;
           }
-          return result;
         }
       }
+
+      // Factories are expected to be deterministic, so there's no need to ask them all again.
+      if (result == null) result = MISSING_VALIDATOR;
+      if (result != MISSING_VALIDATOR) deferredAdapter.ready((Validator<T>) result);
+      List<Object> dependencies = deferredAdapter.dependencies;
+      Resolution resolution = new Resolution(result,
+          producer,
+          dependencies != null ? dependencies.toArray() : Resolution.NO_DEPENDENCIES);
+      if (producer instanceof RegisteredValidators) {
+        // Validators registered for exact types are never evicted.
+        adapterCache.pin(cacheKey, resolution);
+      } else {
+        adapterCache.putIfAbsent(cacheKey, resolution);
+      }
     } finally {
+      deferredAdapter.dependencies = null;
       deferredAdapters.remove(deferredAdapters.size() - 1);
       if (deferredAdapters.isEmpty()) {
         reentrantCalls.remove();
       }
+      if (root) constructions.decrementAndGet();
+    }
+
+    if (result == MISSING_VALIDATOR) throw noValidator(type, annotations);
+    // Only record roots. Preloading them resolves everything they depend on.
+    if (root && recordedKeys != null) recordedKeys.add(cacheKey);
+    return (Validator<T>) result;
+  }
+
+  /**
+   * Returns the parent's resolution of {@code cacheKey} if it holds for this inspector too, or
+   * null if the key needs to be resolved from scratch. The parent's validator is shared when none
+   * of the factories this inspector asks first would claim the key, and everything it looked up
+   * while it was created resolves to the same validators here. Keys in reference cycles are never
+   * shared, since the validators they look up are still being created.
+   */
+  private @Nullable Resolution sharedResolution(Inspector parent,
+      Type type,
+      Set<? extends Annotation> annotations,
+      Object cacheKey) {
+    // Validators that dispatch on subtypes look them up in the inspector that created them.
+    if (parent.validatesSubtypes || validatesSubtypes) return null;
+    // Built-in validators capture whether their exceptions have stack traces.
+    if (parent.stacklessExceptions != stacklessExceptions) return null;
+    // As do the policies they collect failures by.
+    if (parent.errorPolicy == null
+        ? errorPolicy != null
+        : !parent.errorPolicy.equals(errorPolicy)) {
+      return null;
+    }
+    Resolution parentResolution = parent.adapterCache.resolution(cacheKey);
+    if (parentResolution == null || !parentResolution.isShareable()) return null;
+
+    Validator.Factory producer = parentResolution.producer;
+    // Other factories' validators may hold on to the inspector that created them, and look up
+    // validators in it later. Only those that are known not to are shared.
+    if (producer != null
+        && !(producer instanceof RegisteredValidators)
+        && !BUILT_IN_FACTORIES.contains(producer)) {
+      return null;
+    }
+    if (producer == ClassValidator.FACTORY
+        && (parent.generatedGetters != generatedGetters
+        || parent.validatesFields != validatesFields
+        || parent.adaptiveCheckOrder != adaptiveCheckOrder)) {
+      // The parent reflected on the class differently.
+      return null;
+    }
+    int index = producer != null ? factories.indexOf(producer) : factories.size();
+    int parentIndex =
+        producer != null ? parent.factories.indexOf(producer) : parent.factories.size();
+    if (index == -1) return null;
+    for (int i = 0; i < index; i++) {
+      // The factories the parent asked first didn't claim the key there, so they won't here.
+      Validator.Factory factory = factories.get(i);
+      int asked = parent.factories.indexOf(factory);
+      if (asked == -1 || asked > parentIndex) {
+        Validator<?> result = factory.create(type, annotations, this);
+        if (result != null) return new Resolution(result, factory, Resolution.NO_DEPENDENCIES);
+      }
+    }
+
+    for (Object dependency : parentResolution.dependencies) {
+      Validator<?> parentValidator = parent.adapterCache.get(dependency);
+      try {
+        if (parentValidator == null || lookUp(dependency) != parentValidator) return null;
+      } catch (IllegalArgumentException e) {
+        // Let the factories handle the failure the way they did for the parent.
+        return null;
+      }
     }
+    return parentResolution;
+  }
+
+  /**
+   * Resolves everything that {@link #parent} has resolved, sharing its validators wherever
+   * possible, then lets go of it. Failures are ignored here, as they were in the parent.
+   */
+  void inheritFromParent() {
+    Inspector parent = parent();
+    if (parent == null) return;
+    for (Object cacheKey : parent.adapterCache.keys()) {
+      try {
+        lookUp(cacheKey);
+      } catch (RuntimeException ignored) {
+      }
+    }
+    this.parent = null;
+  }
+
+  private @Nullable Inspector parent() {
+    WeakReference<Inspector> parent = this.parent;
+    return parent != null ? parent.get() : null;
+  }
+
+  private Validator<?> lookUp(Object cacheKey) {
+    if (cacheKey instanceof CacheKey) {
+      return validator(((CacheKey) cacheKey).type, ((CacheKey) cacheKey).annotations);
+    }
+    return validator((Type) cacheKey, Util.NO_ANNOTATIONS);
+  }
+
+  /**
+   * Notes that the validator this thread is creating, the last of {@code deferredAdapters}, looked
+   * up {@code dependency}.
+   */
+  private static void recordDependency(List<DeferredAdapter<?>> deferredAdapters,
+      Object dependency) {
+    DeferredAdapter<?> deferredAdapter = deferredAdapters.get(deferredAdapters.size() - 1);
+    if (deferredAdapter.dependencies == null) deferredAdapter.dependencies = new ArrayList<>();
+    deferredAdapter.dependencies.add(dependency);
+  }
 
-    throw new IllegalArgumentException("No Validator for " + type + " annotated " + annotations);
+  @SuppressWarnings("unchecked") // Factories are required to return only matching Validators.
+  private static <T> Validator<T> cachedValidator(Validator<?> cached,
+      Type type,
+      Set<? extends Annotation> annotations) {
+    if (cached == MISSING_VALIDATOR) throw noValidator(type, annotations);
+    return (Validator<T>) cached;
   }
 
+  private static IllegalStateException frozen(Type type, Set<? extends Annotation> annotations) {
+    return new IllegalStateException("Inspector is frozen: no Validator for "
+        + type
+        + " annotated "
+        + annotations
+        + " was created before freeze()");
+  }
+
+  private static IllegalArgumentException noValidator(Type type,
+      Set<? extends Annotation> annotations) {
+    return new IllegalArgumentException("No Validator for " + type + " annotated " + annotations);
+  }
 
   /**
-   * Returns a validator for {@code type} and {@code annotations}, always creating a new one and
-   * skipping past {@code skipPast} for creation. */
+   * Returns the validator for {@code type} and {@code annotations}, waiting for another thread to
+   * finish creating it if necessary.
+   */
+  <T> Validator<T> awaitValidator(Type type, Set<? extends Annotation> annotations) {
+    Object cacheKey = cacheKey(Types.canonicalize(type), annotations);
+    while (true) {
+      Validator<?> cached = adapterCache.get(cacheKey);
+      if (cached != null) return cachedValidator(cached, type, annotations);
+      PendingValidator pending = pendingValidators.get(cacheKey);
+      if (pending == null) return validator(type, annotations);
+      if (pending.owner == Thread.currentThread()) {
+        throw new IllegalStateException("Validator isn't ready");
+      }
+      pending.await();
+    }
+  }
+
+  /**
+   * Returns a validator for {@code type} and {@code annotations}, skipping past {@code skipPast}
+   * for creation. Results are cached, so repeated calls return the same validator.
+   */
   @SuppressWarnings("unchecked") // Factories are required to return only matching Validators.
   public <T> Validator<T> nextValidator(Validator.Factory skipPast,
       Type type,
       Set<? extends Annotation> annotations) {
     type = Types.canonicalize(type);
+    // Which validator comes next depends on every factory after this one, so don't share it.
+    List<DeferredAdapter<?>> deferredAdapters =
+        constructions.get() != 0 ? reentrantCalls.get() : null;
+    if (deferredAdapters != null) recordDependency(deferredAdapters, Resolution.NOT_SHAREABLE);
 
+    ValidatorCache nextValidators = nextValidatorCache.get(skipPast);
+    if (nextValidators == null) {
+      nextValidators = new ValidatorCache(maximumCacheSize, null);
+      ValidatorCache existing = nextValidatorCache.putIfAbsent(skipPast, nextValidators);
+      if (existing != null) nextValidators = existing;
+    }
+    Object cacheKey = cacheKey(type, annotations);
+    Validator<?> cached = nextValidators.get(cacheKey);
+    if (cached != null) return (Validator<T>) cached;
+
+    if (frozen) throw frozen(type, annotations);
     int skipPastIndex = factories.indexOf(skipPast);
     if (skipPastIndex == -1) {
       throw new IllegalArgumentException("Unable to skip past unknown factory " + skipPast);
@@ -126,7 +541,10 @@ public final class Inspector {
     for (int i = skipPastIndex + 1, size = factories.size(); i < size; i++) {
       Validator<T> result = (Validator<T>) factories.get(i)
           .create(type, annotations, this);
-      if (result != null) return result;
+      if (result != null) {
+        return (Validator<T>) nextValidators.putIfAbsent(cacheKey,
+            new Resolution(result, factories.get(i), Resolution.NO_DEPENDENCIES));
+      }
     }
     throw new IllegalArgumentException("No next Validator for "
         + type
@@ -134,34 +552,229 @@ public final class Inspector {
         + annotations);
   }
 
-  /** Returns a new builder containing all custom factories used by the current instance. */
+  /**
+   * Stops this inspector from creating validators. Validators that were created so far keep being
+   * returned, but asking for any other, including one that a validator looks up as it validates,
+   * such as for a subtype, throws an {@link IllegalStateException}. This is intended to be called
+   * once warm-up is done, e.g. after {@link Builder#preload}, to make sure that no request pays for
+   * creating a validator reflectively. Validators evicted from a {@link Builder#maximumCacheSize
+   * bounded cache} can't be created again either.
+   */
+  public void freeze() {
+    frozen = true;
+  }
+
+  /** Returns how validators that look others up as they validate refer back to this. */
+  Handle handle() {
+    return handle;
+  }
+
+  /** Returns true if reflective validators bind getters once they've been called enough. */
+  boolean generatedGetters() {
+    return generatedGetters;
+  }
+
+  /** Returns true if reflective validators read fields rather than call methods. */
+  boolean validatesFields() {
+    return validatesFields;
+  }
+
+  /** Returns true if values are validated by their runtime class rather than the declared type. */
+  boolean validatesSubtypes() {
+    return validatesSubtypes;
+  }
+
+  /** Returns true if reflective validators adapt the order of their checks to what fails. */
+  boolean adaptsCheckOrder() {
+    return adaptiveCheckOrder;
+  }
+
+  /** Returns true if built-in validators throw exceptions with stack traces. */
+  boolean writableStackTraces() {
+    return !stacklessExceptions;
+  }
+
+  /**
+   * Returns this inspector's instance of a {@link ValidatedBy} validator, shared by every property
+   * that names it. It's created with its default constructor, so there's nothing to tell instances
+   * apart within an inspector. Other inspectors create their own, in case it keeps state.
+   */
+  @SuppressWarnings("ClassNewInstance")
+  Validator<?> delegateValidator(Class<? extends Validator<?>> validatorClass)
+      throws InstantiationException, IllegalAccessException {
+    Validator<?> validator = delegateValidators.get(validatorClass);
+    if (validator != null) return validator;
+    return delegateValidators.putIfAbsent(validatorClass, validatorClass.newInstance());
+  }
+
+  /**
+   * Returns the policy by which validators collect failures. Unless it was configured with {@link
+   * Builder#errorPolicy}, this is {@link ErrorPolicy#failFast()}.
+   */
+  public ErrorPolicy errorPolicy() {
+    return errorPolicy != null ? errorPolicy : ErrorPolicy.failFast();
+  }
+
+  /** Returns the policy set with {@link Builder#errorPolicy}, or null if none was. */
+  @Nullable ErrorPolicy configuredErrorPolicy() {
+    return errorPolicy;
+  }
+
+  /**
+   * Returns the number of validators evicted to stay within the {@link Builder#maximumCacheSize},
+   * or 0 if the cache is unbounded.
+   */
+  public long evictionCount() {
+    long evictionCount = adapterCache.evictionCount();
+    for (ValidatorCache nextValidators : nextValidatorCache.values()) {
+      evictionCount += nextValidators.evictionCount();
+    }
+    return evictionCount;
+  }
+
+  /**
+   * Writes a manifest of the types this inspector has resolved validators for to {@code file}.
+   * Pass it to {@link Builder#preloadWarmUpManifest} on the next start to preload them.
+   *
+   * @throws IllegalStateException if recording wasn't enabled with {@link
+   * Builder#recordWarmUpManifest()}.
+   */
+  public void writeWarmUpManifest(File file) throws IOException {
+    if (recordedKeys == null) {
+      throw new IllegalStateException("Recording is not enabled on this Inspector");
+    }
+    WarmUpManifest.write(file, recordedKeys);
+  }
+
+  /**
+   * Preloads the validators listed in {@code manifest} without blocking the caller. Failures are
+   * ignored here, since they'll surface again if the types are actually used.
+   */
+  void preloadInBackground(final File manifest,
+      final ClassLoader classLoader,
+      @Nullable Executor executor) {
+    Runnable preload = new Runnable() {
+      @Override public void run() {
+        List<CacheKey> cacheKeys;
+        try {
+          cacheKeys = WarmUpManifest.read(manifest, classLoader);
+        } catch (IOException ignored) {
+          // There's no manifest yet, or it's unreadable. Either way, there's nothing to preload.
+          return;
+        }
+        for (CacheKey cacheKey : cacheKeys) {
+          try {
+            validator(cacheKey.type, cacheKey.annotations);
+          } catch (RuntimeException ignored) {
+          }
+        }
+      }
+    };
+    if (executor != null) {
+      executor.execute(preload);
+    } else {
+      Thread thread = new Thread(preload, "Inspector preloader");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /** Resolves validators for {@code types}, running them on {@code executor} if it's non-null. */
+  void preload(List<Type> types, @Nullable Executor executor) {
+    if (executor == null) {
+      for (Type type : types) {
+        validator(type);
+      }
+      return;
+    }
+
+    final CountDownLatch done = new CountDownLatch(types.size());
+    final List<RuntimeException> failures =
+        Collections.synchronizedList(new ArrayList<RuntimeException>());
+    for (final Type type : types) {
+      executor.execute(new Runnable() {
+        @Override public void run() {
+          try {
+            validator(type);
+          } catch (RuntimeException e) {
+            failures.add(e);
+          } finally {
+            done.countDown();
+          }
+        }
+      });
+    }
+    Util.awaitUninterruptibly(done);
+    if (!failures.isEmpty()) {
+      RuntimeException failure = failures.get(0);
+      for (int i = 1; i < failures.size(); i++) {
+        failure.addSuppressed(failures.get(i));
+      }
+      throw failure;
+    }
+  }
+
+  /**
+   * Returns a new builder containing all custom factories used by the current instance. The
+   * inspectors it builds share this inspector's validators wherever the factories added to the
+   * builder can't change them, and only cache the ones that differ. Only built-in validators and
+   * those registered with {@link Builder#add(Type, Validator)} are shared; other factories are
+   * asked again. Derived inspectors don't keep this one reachable, and stop sharing once it's
+   * collected.
+   */
   public Inspector.Builder newBuilder() {
+    Builder builder = configuration();
+    builder.parent = this;
+    return builder;
+  }
+
+  /** Returns a builder with the factories and settings of this inspector, and nothing else. */
+  private Builder configuration() {
     int fullSize = factories.size();
     int tailSize = BUILT_IN_FACTORIES.size();
     List<Validator.Factory> customFactories = factories.subList(0, fullSize - tailSize);
-    return new Builder().addAll(customFactories);
+    Builder builder = new Builder().addAll(customFactories);
+    builder.maximumCacheSize = maximumCacheSize;
+    builder.generatedGetters = generatedGetters;
+    builder.validateFields = validatesFields;
+    builder.validateSubtypes = validatesSubtypes;
+    builder.adaptiveCheckOrder = adaptiveCheckOrder;
+    builder.stacklessExceptions = stacklessExceptions;
+    builder.errorPolicy = errorPolicy;
+    return builder;
   }
 
-  /** Returns an opaque object that's equal if the type and annotations are equal. */
-  private Object cacheKey(Type type, Set<? extends Annotation> annotations) {
+  /**
+   * Returns an opaque object that's equal if the type and annotations are equal. {@code type} must
+   * be canonical.
+   */
+  static Object cacheKey(Type type, Set<? extends Annotation> annotations) {
     if (annotations.isEmpty()) return type;
-    return Arrays.asList(type, annotations);
+    return new CacheKey(type, annotations);
   }
 
   public static final class Builder {
     final List<Validator.Factory> factories = new ArrayList<>();
+    final List<Type> preloadTypes = new ArrayList<>();
+    @Nullable Executor preloadExecutor;
+    @Nullable File warmUpManifest;
+    boolean recordWarmUpManifest;
+    @Nullable Inspector parent;
+    int maximumCacheSize;
+    boolean generatedGetters = true;
+    boolean validateFields;
+    boolean validateSubtypes;
+    boolean adaptiveCheckOrder;
+    boolean stacklessExceptions;
+    @Nullable ErrorPolicy errorPolicy;
 
     public <T> Builder add(final Type type, final Validator<T> validator) {
       if (type == null) throw new IllegalArgumentException("type == null");
       if (validator == null) throw new IllegalArgumentException("validator == null");
 
-      return add(new Validator.Factory() {
-        @Override public @Nullable Validator<?> create(Type targetType,
-            Set<? extends Annotation> annotations,
-            Inspector inspector) {
-          return annotations.isEmpty() && Util.typesMatch(type, targetType) ? validator : null;
-        }
-      });
+      return add(new RegisteredValidators(
+          Collections.<Object, Validator<?>>singletonMap(
+              cacheKey(Types.canonicalize(type), Util.NO_ANNOTATIONS), validator)));
     }
 
     public <T> Builder add(final Type type,
@@ -177,18 +790,10 @@ public final class Inspector {
         throw new IllegalArgumentException("Use Validator.Factory for annotations with elements");
       }
 
-      return add(new Validator.Factory() {
-        @Override public @Nullable Validator<?> create(Type targetType,
-            Set<? extends Annotation> annotations,
-            Inspector inspector) {
-          if (Util.typesMatch(type, targetType)
-              && annotations.size() == 1
-              && Util.isAnnotationPresent(annotations, annotation)) {
-            return validator;
-          }
-          return null;
-        }
-      });
+      return add(new RegisteredValidators(
+          Collections.<Object, Validator<?>>singletonMap(
+              cacheKey(Types.canonicalize(type), Types.qualifierAnnotations(annotation)),
+              validator)));
     }
 
     public Builder add(Validator.Factory factory) {
@@ -197,13 +802,251 @@ public final class Inspector {
       return this;
     }
 
+    /**
+     * Removes {@code factory}, which was added earlier or copied over by {@link
+     * Inspector#newBuilder()}. This is mostly useful with {@link LiveInspector#reconfigure}.
+     */
+    public Builder remove(Validator.Factory factory) {
+      if (factory == null) throw new IllegalArgumentException("factory == null");
+      if (!factories.remove(factory)) {
+        throw new IllegalArgumentException("Unable to remove unknown factory " + factory);
+      }
+      return this;
+    }
+
     Builder addAll(List<Validator.Factory> factories) {
       this.factories.addAll(factories);
       return this;
     }
 
+    /**
+     * Resolves validators for {@code types}, and everything they depend on, in {@link #build()}.
+     * This moves the cost of reflectively creating validators from the first validation of each
+     * type to startup.
+     */
+    public Builder preload(Type... types) {
+      for (Type type : types) {
+        if (type == null) throw new IllegalArgumentException("type == null");
+        preloadTypes.add(type);
+      }
+      return this;
+    }
+
+    /**
+     * Preloads types on {@code executor} rather than on the calling thread. {@link #build()} still
+     * waits for the types passed to {@link #preload} to finish.
+     */
+    public Builder preloadExecutor(Executor executor) {
+      if (executor == null) throw new IllegalArgumentException("executor == null");
+      this.preloadExecutor = executor;
+      return this;
+    }
+
+    /**
+     * Records the types the built inspector resolves validators for, so that they can be written
+     * out with {@link Inspector#writeWarmUpManifest}.
+     */
+    public Builder recordWarmUpManifest() {
+      this.recordWarmUpManifest = true;
+      return this;
+    }
+
+    /**
+     * Preloads the types in a manifest written by {@link Inspector#writeWarmUpManifest} in the
+     * background, on the {@link #preloadExecutor} if there is one or on a new daemon thread if not.
+     * Unlike {@link #preload}, {@link #build()} doesn't wait for this. A missing manifest is
+     * ignored, as are types in it that no longer exist.
+     */
+    public Builder preloadWarmUpManifest(File manifest) {
+      if (manifest == null) throw new IllegalArgumentException("manifest == null");
+      this.warmUpManifest = manifest;
+      return this;
+    }
+
+    /**
+     * Bounds the number of cached validators for types that aren't plain classes, such as
+     * parameterized types created at runtime, evicting the least recently used ones past that.
+     * Validators registered with {@link #add(Type, Validator)} are never evicted, nor are those
+     * of plain classes, which can be unloaded along with their classes instead. The cache is
+     * unbounded by default.
+     *
+     * @see Inspector#evictionCount()
+     */
+    public Builder maximumCacheSize(int maximumCacheSize) {
+      if (maximumCacheSize <= 0) {
+        throw new IllegalArgumentException("maximumCacheSize <= 0: " + maximumCacheSize);
+      }
+      this.maximumCacheSize = maximumCacheSize;
+      return this;
+    }
+
+    /**
+     * Whether validators created by reflection bind their getters: to an accessor class spun by
+     * {@code LambdaMetafactory} for public methods of public classes, and to a method handle for
+     * other methods and for fields. The JIT can inline a spun class, like the code {@code
+     * inspector-compiler} generates. Method handles aren't inlined, but still skip the checks of
+     * reflective calls. This is the default. Disabling it, or running where {@code
+     * java.lang.invoke} isn't available, such as older Android versions, calls every getter
+     * through {@link java.lang.reflect.Method#invoke} or {@link java.lang.reflect.Field#get}.
+     *
+     * <p>Even when enabled, each getter is called reflectively for its first 16 calls and only
+     * bound after that, as {@code Method.invoke} does itself. Binding a getter costs far more than
+     * a reflective call, and most validators in a large model graph are used rarely, if ever, so
+     * this keeps cold start cheap. Even spun getters only reach the speed of generated code once
+     * they've been called that often.
+     */
+    public Builder generatedGetters(boolean enabled) {
+      this.generatedGetters = enabled;
+      return this;
+    }
+
+    /**
+     * Makes validators created by reflection read the instance fields of a class rather than call
+     * its methods that take no arguments. This suits plain data classes, whose fields are cheaper
+     * to read than their accessors are to call. {@link InspectorIgnored}, {@link ValidatedBy},
+     * nullability and validation qualifiers are then read from the fields. Transient fields are
+     * skipped. Generated validators aren't affected.
+     */
+    public Builder validateFields() {
+      this.validateFields = true;
+      return this;
+    }
+
+    /**
+     * Makes the elements of collections and arrays, the values of maps, and the properties of
+     * reflective validators validate as their runtime class, when that's a subclass of the declared
+     * type. A {@code List<Shape>} of circles and squares then has each element validated as a
+     * {@code Circle} or a {@code Square} rather than as a {@code Shape}, which also makes abstract
+     * classes usable as declared types.
+     *
+     * <p>Only declared types that reflective validators would handle are dispatched on: non-final
+     * classes outside of platform packages, without validation qualifiers. Each such use
+     * remembers the validators of the first two runtime classes it sees, so a typical model
+     * doesn't look validators up per value. Interfaces are still validated through their own
+     * accessors only, so that the implementations' other methods aren't called, and flyweight
+     * views share one validator.
+     */
+    public Builder validateSubtypes() {
+      this.validateSubtypes = true;
+      return this;
+    }
+
+    /**
+     * Makes validators created by reflection check properties in an order adapted to the
+     * failures and costs they observe, rather than by name. Validation stops at the first
+     * failure, so checks that are cheap and fail often are moved first. The statistics are
+     * sampled, so this costs little once validators are warm.
+     *
+     * <p>When more than one property is invalid, which one is reported may change over time. This
+     * has no effect unless the {@linkplain #errorPolicy error policy} fails fast, since the order
+     * doesn't matter when every property is checked anyway. The validators of a {@link
+     * CompositeValidator} aren't reordered.
+     */
+    public Builder adaptiveCheckOrder() {
+      this.adaptiveCheckOrder = true;
+      return this;
+    }
+
+    /**
+     * Makes the built-in validators throw exceptions without stack traces. Capturing one
+     * dominates the cost of rejecting a value, and it's rarely of use, since it shows where
+     * validation was called rather than what was invalid. Exceptions thrown by other validators,
+     * such as those registered with {@link #add(Type, Validator)}, are passed on as they are.
+     *
+     * @see Validator#check
+     */
+    public Builder stacklessExceptions() {
+      this.stacklessExceptions = true;
+      return this;
+    }
+
+    /**
+     * Sets how many failures validators collect before they stop. By default, they {@linkplain
+     * ErrorPolicy#failFast() fail fast}, except for those made up with {@link ValidatedBy}, which
+     * {@linkplain ErrorPolicy#collectAll() collect all} of theirs. Setting a policy applies it to
+     * both, as well as to the properties of models and the elements of collections, arrays and
+     * maps, and to generated validators.
+     */
+    public Builder errorPolicy(ErrorPolicy errorPolicy) {
+      if (errorPolicy == null) throw new IllegalArgumentException("errorPolicy == null");
+      this.errorPolicy = errorPolicy;
+      return this;
+    }
+
     public Inspector build() {
-      return new Inspector(this);
+      Inspector inspector = new Inspector(this);
+      if (!preloadTypes.isEmpty()) {
+        inspector.preload(preloadTypes, preloadExecutor);
+      }
+      if (warmUpManifest != null) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) classLoader = Inspector.class.getClassLoader();
+        inspector.preloadInBackground(warmUpManifest, classLoader, preloadExecutor);
+      }
+      return inspector;
+    }
+  }
+
+  /**
+   * Validators registered for exact types via {@link Builder#add(Type, Validator)}, keyed by their
+   * cache keys.
+   */
+  private static final class RegisteredValidators implements Validator.Factory {
+    final Map<Object, Validator<?>> validators;
+
+    RegisteredValidators(Map<Object, Validator<?>> validators) {
+      this.validators = validators;
+    }
+
+    @Override public @Nullable Validator<?> create(Type type,
+        Set<? extends Annotation> annotations,
+        Inspector inspector) {
+      return validators.get(cacheKey(type, annotations));
+    }
+  }
+
+  /**
+   * Marks a validator that some thread is currently creating. Other threads that need the same
+   * validator wait on this rather than creating a duplicate.
+   */
+  private static final class PendingValidator {
+    final Thread owner = Thread.currentThread();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    void finish() {
+      done.countDown();
+    }
+
+    void await() {
+      Util.awaitUninterruptibly(done);
+    }
+  }
+
+  /**
+   * How validators that look others up as they validate, such as those of self-validating types
+   * and those that dispatch on subtypes, refer back to their inspector. It's held weakly: plain
+   * classes hold their validators, so a strong reference would keep the inspector, and everything
+   * it caches, reachable for as long as any class it validated is loaded. Validators may still be
+   * used after their inspector is collected though, so this then builds one like it to look
+   * validators up in.
+   */
+  static final class Handle {
+    private final WeakReference<Inspector> inspector;
+    private final Builder configuration;
+    private @Nullable Inspector replacement;
+
+    Handle(Inspector inspector) {
+      this.inspector = new WeakReference<>(inspector);
+      this.configuration = inspector.configuration();
+    }
+
+    Inspector get() {
+      Inspector inspector = this.inspector.get();
+      if (inspector != null) return inspector;
+      synchronized (this) {
+        if (replacement == null) replacement = configuration.build();
+        return replacement;
+      }
     }
   }
 
@@ -214,13 +1057,32 @@ public final class Inspector {
    *
    * <p>Typically this is necessary in self-referential object models, such as an {@code Employee}
    * class that has a {@code List<Employee>} field for an organization's management hierarchy.
+   *
+   * <p>Stubs may also be handed out for validators that another thread is creating. Since the
+   * validators that capture a stub can be published before the stub is wired, an unwired stub
+   * looks its delegate up (waiting if necessary) the first time it is used.
    */
-  private static class DeferredAdapter<T> extends Validator<T> {
+  static final class DeferredAdapter<T> extends Validator<T> {
     @Nullable Object cacheKey;
-    @Nullable private Validator<T> delegate;
+    /** The keys looked up while creating the delegate, or null if there are none yet. */
+    @Nullable List<Object> dependencies;
+    /** The inspector that an unwired stub looks its delegate up in, or null. */
+    private volatile @Nullable Handle handle;
+    private final Type type;
+    private final Set<? extends Annotation> annotations;
+    private volatile @Nullable Validator<T> delegate;
 
-    DeferredAdapter(Object cacheKey) {
+    DeferredAdapter(Object cacheKey, Type type, Set<? extends Annotation> annotations) {
       this.cacheKey = cacheKey;
+      this.type = type;
+      this.annotations = annotations;
+    }
+
+    /** Creates a stub for a validator that another thread is creating in {@code handle}. */
+    DeferredAdapter(Handle handle, Type type, Set<? extends Annotation> annotations) {
+      this.handle = handle;
+      this.type = type;
+      this.annotations = annotations;
     }
 
     void ready(Validator<T> delegate) {
@@ -229,8 +1091,27 @@ public final class Inspector {
     }
 
     @Override public void validate(T validationTarget) throws ValidationException {
-      if (delegate == null) throw new IllegalStateException("Validator isn't ready");
-      delegate.validate(validationTarget);
+      delegate().validate(validationTarget);
+    }
+
+    @Override public ValidationResult check(T validationTarget) {
+      return delegate().check(validationTarget);
+    }
+
+    private Validator<T> delegate() {
+      Validator<T> delegate = this.delegate;
+      if (delegate == null) {
+        delegate = handle.get()
+            .<T>awaitValidator(type, annotations);
+        this.delegate = delegate;
+        handle = null;
+      }
+      return delegate;
+    }
+
+    @Override Validator<T> nonNullDelegate() {
+      Validator<T> delegate = this.delegate;
+      return delegate != null ? delegate.nonNullDelegate() : this;
     }
   }
 }
@@ -3,7 +3,8 @@ package io.sweers.inspector;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
+import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
-@Retention(RUNTIME) @Target(METHOD) public @interface InspectorIgnored {}
+@Retention(RUNTIME) @Target({ METHOD, FIELD }) public @interface InspectorIgnored {}
@@ -0,0 +1,63 @@
+package io.sweers.inspector;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds an inspector that can be reconfigured while it's in use, e.g. when a feature flag turns a
+ * validation rule on or off.
+ *
+ * <pre><code>
+ * LiveInspector live = new LiveInspector(inspector);
+ * ...
+ * live.reconfigure(new LiveInspector.Reconfiguration() {
+ *   {@literal @}Override public void apply(Inspector.Builder builder) {
+ *     builder.remove(strictEmailRule);
+ *   }
+ * });
+ * </code></pre>
+ *
+ * <p>{@link #reconfigure} derives the new inspector with {@link Inspector#newBuilder()} and
+ * resolves everything the current one has resolved before swapping it in. Built-in and registered
+ * validators that the changed factories can't affect are shared rather than created again, and
+ * the rest are created on the reconfiguring thread. Validations never block on this: those that
+ * already obtained a validator finish with the old one, and {@link #get()} returns the old
+ * inspector until the new one is ready.
+ *
+ * <p>{@link ValidatorKey Keys} obtained from any of these inspectors work with all of them.
+ */
+public final class LiveInspector {
+  /** Changes the factories of a derived inspector. */
+  public interface Reconfiguration {
+    /**
+     * Applies changes to {@code builder}, which starts out with the current inspector's factories.
+     * This may be called more than once if other threads reconfigure at the same time.
+     */
+    void apply(Inspector.Builder builder);
+  }
+
+  private final AtomicReference<Inspector> current;
+
+  public LiveInspector(Inspector inspector) {
+    if (inspector == null) throw new IllegalArgumentException("inspector == null");
+    this.current = new AtomicReference<>(inspector);
+  }
+
+  /** Returns the current inspector. */
+  public Inspector get() {
+    return current.get();
+  }
+
+  /** Swaps in an inspector derived from the current one with {@code reconfiguration} applied. */
+  public Inspector reconfigure(Reconfiguration reconfiguration) {
+    if (reconfiguration == null) throw new IllegalArgumentException("reconfiguration == null");
+    while (true) {
+      Inspector previous = current.get();
+      Inspector.Builder builder = previous.newBuilder();
+      reconfiguration.apply(builder);
+      Inspector next = builder.build();
+      next.inheritFromParent();
+      if (current.compareAndSet(previous, next)) return next;
+      // Someone else swapped in an inspector first. Apply our changes on top of theirs instead.
+    }
+  }
+}
@@ -2,6 +2,8 @@ package io.sweers.inspector;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -24,19 +26,62 @@ final class MapValidator<K, V> extends Validator<Map<K, V>> {
 
   private final Validator<K> keyAdapter;
   private final Validator<V> valueAdapter;
+  private final boolean writableStackTraces;
+  private final ErrorPolicy errorPolicy;
 
   MapValidator(Inspector inspector, Type keyType, Type valueType) {
-    this.keyAdapter = inspector.validator(keyType);
-    this.valueAdapter = inspector.validator(valueType);
+    // Null keys are rejected before validating them, so they can skip null-safe wrappers.
+    Validator<K> keyAdapter = inspector.validator(keyType);
+    this.keyAdapter = keyAdapter.nonNullDelegate();
+    this.valueAdapter = SubtypeValidator.of(inspector, valueType, Util.NO_ANNOTATIONS);
+    this.writableStackTraces = inspector.writableStackTraces();
+    this.errorPolicy = inspector.errorPolicy();
   }
 
   @Override public void validate(Map<K, V> map) throws ValidationException {
-    for (Map.Entry<K, V> entry : map.entrySet()) {
-      if (entry.getKey() == null) {
-        throw new ValidationException("Map key is null at");
+    check(map).throwIfInvalid(writableStackTraces);
+  }
+
+  @Override public ValidationResult check(Map<K, V> map) {
+    // Skip iterating over whatever doesn't need validating.
+    if (valueAdapter.isNoOp()) {
+      if (keyAdapter.isNoOp()) {
+        if (containsNullKey(map)) return ValidationResult.invalid("Map key is null.");
+        return ValidationResult.valid();
       }
-      keyAdapter.validate(entry.getKey());
-      valueAdapter.validate(entry.getValue());
+      if (errorPolicy.isFailFast()) {
+        for (K key : map.keySet()) {
+          if (key == null) return ValidationResult.invalid("Map key is null.");
+          ValidationResult result = keyAdapter.check(key);
+          if (!result.isValid()) return result.prependKey(key);
+        }
+        return ValidationResult.valid();
+      }
+    }
+    List<ValidationResult> failures = null;
+    for (Map.Entry<K, V> entry : map.entrySet()) {
+      K key = entry.getKey();
+      ValidationResult result = key == null
+          ? ValidationResult.invalid("Map key is null.")
+          : keyAdapter.check(key);
+      if (result.isValid()) result = valueAdapter.check(entry.getValue());
+      if (result.isValid()) continue;
+      // Null keys are reported at the map itself.
+      if (key != null) result = result.prependKey(key);
+      if (errorPolicy.isFailFast()) return result;
+      if (failures == null) failures = new ArrayList<>();
+      failures.add(result);
+      if (failures.size() == errorPolicy.maximumFailures) break;
+    }
+    return ValidationResult.ofFailures(failures);
+  }
+
+  private static boolean containsNullKey(Map<?, ?> map) {
+    try {
+      return map.containsKey(null);
+    } catch (NullPointerException e) {
+      // This map doesn't permit null keys, so it doesn't have any.
+      return false;
     }
   }
 
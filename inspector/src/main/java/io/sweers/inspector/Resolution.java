@@ -0,0 +1,44 @@
+package io.sweers.inspector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Records how an {@link Inspector} resolved a cache key: the factory that created its validator,
+ * and the keys that factory looked up while doing so. Inspectors created with {@link
+ * Inspector#newBuilder()} use this to tell which of their parent's validators they can share. It's
+ * what {@link ValidatorCache} stores, so recording it takes no table of its own.
+ */
+final class Resolution {
+  /** Recorded as a dependency when a validator can't be shared, e.g. because it skipped ahead. */
+  static final Object NOT_SHAREABLE = new Object() {
+    @Override public String toString() {
+      return "NotShareable";
+    }
+  };
+
+  static final Object[] NO_DEPENDENCIES = new Object[0];
+
+  final Validator<?> validator;
+  /** The factory that created {@link #validator}, or null if no factory could. */
+  final @Nullable Validator.Factory producer;
+  final Object[] dependencies;
+
+  Resolution(Validator<?> validator, @Nullable Validator.Factory producer, Object[] dependencies) {
+    this.validator = validator;
+    this.producer = producer;
+    this.dependencies = dependencies;
+  }
+
+  /**
+   * Returns true if this validator only depends on the inspector through the validators it looked
+   * up while it was created. Self-validating types look validators up whenever they're validated,
+   * so they're bound to the inspector that created them.
+   */
+  boolean isShareable() {
+    if (producer == SelfValidating.FACTORY) return false;
+    for (Object dependency : dependencies) {
+      if (dependency == NOT_SHAREABLE) return false;
+    }
+    return true;
+  }
+}
@@ -33,9 +33,10 @@ public interface SelfValidating {
         final Set<? extends Annotation> annotations,
         final Inspector inspector) {
       if (SelfValidating.class.isAssignableFrom(Types.getRawType(type))) {
+        final Inspector.Handle handle = inspector.handle();
         return new Validator<SelfValidating>() {
           @Override public void validate(SelfValidating target) throws ValidationException {
-            target.validate(inspector);
+            target.validate(handle.get());
           }
 
           @Override public String toString() {
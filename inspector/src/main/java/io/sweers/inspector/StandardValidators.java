@@ -38,5 +38,13 @@ final class StandardValidators {
     @Override public void validate(Object validationTarget) throws ValidationException {
       // Nothing to do
     }
+
+    @Override public ValidationResult check(Object validationTarget) {
+      return ValidationResult.valid();
+    }
+
+    @Override boolean isNoOp() {
+      return true;
+    }
   };
 }
@@ -0,0 +1,125 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Validates values by their runtime class, for inspectors that {@linkplain
+ * Inspector.Builder#validateSubtypes() validate subtypes}. Each instance serves a single use of a
+ * declared type, such as the elements of one collection type, and caches the validators of the
+ * first two subclasses it sees there. Most uses only ever see one or two, so they never look a
+ * validator up after that. Other subclasses are looked up in the inspector every time.
+ */
+final class SubtypeValidator<T> extends Validator<T> {
+  /**
+   * Returns the validator that a property, element or value of {@code type} should use: one that
+   * dispatches on subtypes if the inspector validates them and the type allows it, or the plain
+   * validator of {@code type} otherwise.
+   */
+  static <T> Validator<T> of(Inspector inspector,
+      Type type,
+      Set<? extends Annotation> annotations) {
+    Class<?> rawType = Types.getRawType(type);
+    if (!inspector.validatesSubtypes() || !annotations.isEmpty() || !hasSubtypes(rawType)) {
+      return inspector.validator(type, annotations);
+    }
+    Validator<T> declared;
+    try {
+      declared = inspector.validator(type, annotations);
+    } catch (IllegalArgumentException e) {
+      // Abstract classes don't need a validator of their own, since only subclasses are validated.
+      if (!Modifier.isAbstract(rawType.getModifiers())) throw e;
+      declared = null;
+    }
+    return new SubtypeValidator<>(inspector.handle(), rawType, declared);
+  }
+
+  /**
+   * Returns true if values of {@code rawType} are dispatched on. Interfaces aren't: they're
+   * validated through their own accessors, which is what lets a flyweight implementation be
+   * validated without reflecting on, or creating a validator for, each implementation class.
+   */
+  private static boolean hasSubtypes(Class<?> rawType) {
+    return !rawType.isPrimitive()
+        && !rawType.isInterface()
+        && !rawType.isArray()
+        && !rawType.isEnum()
+        && !Modifier.isFinal(rawType.getModifiers())
+        && !ClassValidator.isPlatformType(rawType);
+  }
+
+  private final Inspector.Handle inspector;
+  private final Class<?> declaredType;
+  /** The validator of the declared type, or null if it's abstract and doesn't have one. */
+  private final @Nullable Validator<T> declared;
+  private @Nullable Entry<T> first;
+  private @Nullable Entry<T> second;
+
+  private SubtypeValidator(Inspector.Handle inspector,
+      Class<?> declaredType,
+      @Nullable Validator<T> declared) {
+    this.inspector = inspector;
+    this.declaredType = declaredType;
+    this.declared = declared;
+  }
+
+  @Override public void validate(T validationTarget) throws ValidationException {
+    Validator<T> validator = dispatch(validationTarget);
+    if (validator != null) validator.validate(validationTarget);
+  }
+
+  @Override public ValidationResult check(T validationTarget) {
+    Validator<T> validator = dispatch(validationTarget);
+    return validator != null ? validator.check(validationTarget) : ValidationResult.valid();
+  }
+
+  /** Returns the validator of {@code validationTarget}'s class, or null if there's none. */
+  private @Nullable Validator<T> dispatch(@Nullable T validationTarget) {
+    if (validationTarget == null) return declared;
+    Class<?> runtimeType = validationTarget.getClass();
+    // An entry is read once, so racing threads never pair one's class with another's validator.
+    Entry<T> first = this.first;
+    if (first != null && first.runtimeType == runtimeType) return first.validator;
+    Entry<T> second = this.second;
+    if (second != null && second.runtimeType == runtimeType) return second.validator;
+
+    Validator<T> validator = lookUp(runtimeType);
+    if (first == null) {
+      this.first = new Entry<>(runtimeType, validator);
+    } else if (second == null) {
+      this.second = new Entry<>(runtimeType, validator);
+    }
+    return validator;
+  }
+
+  @SuppressWarnings("unchecked") // The runtime class is a subclass of T.
+  private Validator<T> lookUp(Class<?> runtimeType) {
+    // Parameterized declared types would lose their type arguments in the runtime class.
+    if (runtimeType == declaredType && declared != null) return declared;
+    try {
+      return (Validator<T>) inspector.get()
+          .validator(runtimeType);
+    } catch (IllegalArgumentException e) {
+      // E.g. an anonymous subclass, which can't be validated on its own.
+      if (declared == null) throw e;
+      return declared;
+    }
+  }
+
+  @Override public String toString() {
+    return "Validator(" + declaredType.getName() + ").subtypes()";
+  }
+
+  private static final class Entry<T> {
+    final Class<?> runtimeType;
+    final Validator<T> validator;
+
+    Entry(Class<?> runtimeType, Validator<T> validator) {
+      this.runtimeType = runtimeType;
+      this.validator = validator;
+    }
+  }
+}
@@ -25,6 +25,12 @@ import javax.annotation.Nullable;
 public final class Types {
   static final Type[] EMPTY_TYPE_ARRAY = new Type[] {};
 
+  /** Canonical forms of array classes, so that looking them up doesn't allocate. */
+  private static final ClassSlots<Type> CANONICAL_ARRAY_TYPES = ClassSlots.create();
+
+  /** Interned qualifier implementations, wrapped in the singleton sets that lookups use. */
+  private static final ClassSlots<Set<Annotation>> QUALIFIER_ANNOTATIONS = ClassSlots.create();
+
   private Types() {
   }
 
@@ -99,7 +105,11 @@ public final class Types {
   static Type canonicalize(Type type) {
     if (type instanceof Class) {
       Class<?> c = (Class<?>) type;
-      return c.isArray() ? new GenericArrayTypeImpl(canonicalize(c.getComponentType())) : c;
+      if (!c.isArray()) return c;
+      Type canonical = CANONICAL_ARRAY_TYPES.get(c);
+      if (canonical != null) return canonical;
+      return CANONICAL_ARRAY_TYPES.putIfAbsent(c,
+          new GenericArrayTypeImpl(canonicalize(c.getComponentType())));
 
     } else if (type instanceof ParameterizedType) {
       if (type instanceof ParameterizedTypeImpl) return type;
@@ -154,6 +164,19 @@ public final class Types {
     }
   }
 
+  /**
+   * Returns a singleton set holding the implementation of the element-less qualifier {@code
+   * annotationType}. Both the set and the annotation are interned, so repeated qualified lookups
+   * hash and compare them cheaply.
+   */
+  static Set<? extends Annotation> qualifierAnnotations(
+      Class<? extends Annotation> annotationType) {
+    Set<Annotation> annotations = QUALIFIER_ANNOTATIONS.get(annotationType);
+    if (annotations != null) return annotations;
+    return QUALIFIER_ANNOTATIONS.putIfAbsent(annotationType, Collections.<Annotation>singleton(
+        createValidationQualifierImplementation(annotationType)));
+  }
+
   @SuppressWarnings("unchecked")
   static <T extends Annotation> T createValidationQualifierImplementation(final Class<T> annotationType) {
     if (!annotationType.isAnnotation()) {
@@ -165,6 +188,7 @@ public final class Types {
     if (annotationType.getDeclaredMethods().length != 0) {
       throw new IllegalArgumentException(annotationType + " must not declare methods.");
     }
+    final String toString = "@" + annotationType.getName() + "()";
     return (T) Proxy.newProxyInstance(annotationType.getClassLoader(),
         new Class<?>[] { annotationType }, new InvocationHandler() {
           @Override public Object invoke(Object proxy, Method method, Object[] args)
@@ -175,11 +199,12 @@ public final class Types {
                 return annotationType;
               case "equals":
                 Object o = args[0];
-                return annotationType.isInstance(o);
+                return o == proxy || annotationType.isInstance(o);
               case "hashCode":
+                // An annotation without elements always hashes to 0.
                 return 0;
               case "toString":
-                return "@" + annotationType.getName() + "()";
+                return toString;
               default:
                 return method.invoke(proxy, args);
             }
@@ -486,6 +511,7 @@ public final class Types {
     private final @Nullable Type ownerType;
     private final Type rawType;
     final Type[] typeArguments;
+    private final int hashCode;
 
     ParameterizedTypeImpl(@Nullable Type ownerType, Type rawType, Type... typeArguments) {
       // Require an owner type if the raw type needs it.
@@ -503,6 +529,9 @@ public final class Types {
         checkNotPrimitive(this.typeArguments[t]);
         this.typeArguments[t] = canonicalize(this.typeArguments[t]);
       }
+      this.hashCode = Arrays.hashCode(this.typeArguments)
+          ^ this.rawType.hashCode()
+          ^ hashCodeOrZero(this.ownerType);
     }
 
     @Override public Type[] getActualTypeArguments() {
@@ -523,9 +552,7 @@ public final class Types {
     }
 
     @Override public int hashCode() {
-      return Arrays.hashCode(typeArguments)
-          ^ rawType.hashCode()
-          ^ hashCodeOrZero(ownerType);
+      return hashCode;
     }
 
     @Override public String toString() {
@@ -546,9 +573,11 @@ public final class Types {
 
   private static final class GenericArrayTypeImpl implements GenericArrayType {
     private final Type componentType;
+    private final int hashCode;
 
     GenericArrayTypeImpl(Type componentType) {
       this.componentType = canonicalize(componentType);
+      this.hashCode = this.componentType.hashCode();
     }
 
     @Override public Type getGenericComponentType() {
@@ -561,7 +590,7 @@ public final class Types {
     }
 
     @Override public int hashCode() {
-      return componentType.hashCode();
+      return hashCode;
     }
 
     @Override public String toString() {
@@ -577,6 +606,7 @@ public final class Types {
   private static final class WildcardTypeImpl implements WildcardType {
     private final Type upperBound;
     private final @Nullable Type lowerBound;
+    private final int hashCode;
 
     WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
       if (lowerBounds.length > 1) throw new IllegalArgumentException();
@@ -595,6 +625,9 @@ public final class Types {
         this.lowerBound = null;
         this.upperBound = canonicalize(upperBounds[0]);
       }
+      // This equals Arrays.hashCode(getLowerBounds()) ^ Arrays.hashCode(getUpperBounds()).
+      this.hashCode = (lowerBound != null ? 31 + lowerBound.hashCode() : 1)
+          ^ (31 + upperBound.hashCode());
     }
 
     @Override public Type[] getUpperBounds() {
@@ -611,9 +644,7 @@ public final class Types {
     }
 
     @Override public int hashCode() {
-      // This equals Arrays.hashCode(getLowerBounds()) ^ Arrays.hashCode(getUpperBounds()).
-      return (lowerBound != null ? 31 + lowerBound.hashCode() : 1)
-          ^ (31 + upperBound.hashCode());
+      return hashCode;
     }
 
     @Override public String toString() {
@@ -2,21 +2,21 @@ package io.sweers.inspector;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
 
 final class Util {
 
   public static final Set<Annotation> NO_ANNOTATIONS = Collections.emptySet();
 
-  private Util() {
-  }
+  /** Per annotation type decisions, which are made for every annotation on every method. */
+  private static final ClassSlots<Boolean> NULLABLE_ANNOTATIONS = ClassSlots.create();
+  private static final ClassSlots<Boolean> VALIDATION_QUALIFIERS = ClassSlots.create();
 
-  public static boolean typesMatch(Type pattern, Type candidate) {
-    // TODO: permit raw types (like Set.class) to match non-raw candidates (like Set<Long>).
-    return pattern.equals(candidate);
+  private Util() {
   }
 
   public static Set<? extends Annotation> validationAnnotations(AnnotatedElement annotatedElement) {
@@ -26,7 +26,7 @@ final class Util {
   public static Set<? extends Annotation> validationAnnotations(Annotation[] annotations) {
     Set<Annotation> result = null;
     for (Annotation annotation : annotations) {
-      if (annotation.annotationType().isAnnotationPresent(ValidationQualifier.class)) {
+      if (isValidationQualifier(annotation.annotationType())) {
         if (result == null) result = new LinkedHashSet<>();
         result.add(annotation);
       }
@@ -34,19 +34,10 @@ final class Util {
     return result != null ? Collections.unmodifiableSet(result) : Util.NO_ANNOTATIONS;
   }
 
-  public static boolean isAnnotationPresent(
-      Set<? extends Annotation> annotations, Class<? extends Annotation> annotationClass) {
-    if (annotations.isEmpty()) return false; // Save an iterator in the common case.
-    for (Annotation annotation : annotations) {
-      if (annotation.annotationType() == annotationClass) return true;
-    }
-    return false;
-  }
-
   /** Returns true if {@code annotations} has any annotation whose simple name is Nullable. */
   public static boolean hasNullable(Annotation[] annotations) {
     for (Annotation annotation : annotations) {
-      if (annotation.annotationType().getSimpleName().equals("Nullable")) {
+      if (isNullable(annotation.annotationType())) {
         return true;
       }
     }
@@ -56,10 +47,58 @@ final class Util {
   /** Returns true if {@code annotations} has any annotation whose simple name is Nullable. */
   public static boolean hasNullable(Set<? extends Annotation> annotations) {
     for (Annotation annotation : annotations) {
-      if (annotation.annotationType().getSimpleName().equals("Nullable")) {
+      if (isNullable(annotation.annotationType())) {
         return true;
       }
     }
     return false;
   }
+
+  private static boolean isNullable(Class<? extends Annotation> annotationType) {
+    Boolean nullable = NULLABLE_ANNOTATIONS.get(annotationType);
+    if (nullable != null) return nullable;
+    return NULLABLE_ANNOTATIONS.putIfAbsent(annotationType,
+        annotationType.getSimpleName().equals("Nullable"));
+  }
+
+  private static boolean isValidationQualifier(Class<? extends Annotation> annotationType) {
+    Boolean qualifier = VALIDATION_QUALIFIERS.get(annotationType);
+    if (qualifier != null) return qualifier;
+    return VALIDATION_QUALIFIERS.putIfAbsent(annotationType,
+        annotationType.isAnnotationPresent(ValidationQualifier.class));
+  }
+
+  /** Waits for {@code latch}, restoring the thread's interrupt status if it was interrupted. */
+  public static void awaitUninterruptibly(CountDownLatch latch) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        latch.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Replaces each {@code %s} in {@code template} with the next of {@code args}. Unlike {@link
+   * String#format}, this doesn't parse a format, and never throws for mismatched arguments.
+   */
+  public static String format(String template, @Nullable Object[] args) {
+    if (args == null || args.length == 0) return template;
+    StringBuilder builder = new StringBuilder(template.length() + 16 * args.length);
+    int start = 0;
+    int arg = 0;
+    while (arg < args.length) {
+      int placeholder = template.indexOf("%s", start);
+      if (placeholder == -1) break;
+      builder.append(template, start, placeholder)
+          .append(args[arg++]);
+      start = placeholder + 2;
+    }
+    return builder.append(template, start, template.length())
+        .toString();
+  }
 }
@@ -3,12 +3,15 @@ package io.sweers.inspector;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
+import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
-@Retention(RUNTIME) @Target(METHOD) public @interface ValidatedBy {
+@Retention(RUNTIME) @Target({ METHOD, FIELD }) public @interface ValidatedBy {
   /**
-   * @return an array of one or more {@link Validator} classes.
+   * @return an array of one or more {@link Validator} classes. Each is instantiated once per
+   * {@link Inspector} with its public default constructor, and that instance is shared by every
+   * method or field that names it.
    */
   Class<? extends Validator<?>>[] value();
 }
@@ -1,29 +1,187 @@
 package io.sweers.inspector;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import javax.annotation.Nullable;
+
 /**
  * Base class for validation exceptions. You can use this directly with your own message if you
  * want, or subclass it to put your own information.
  */
 public class ValidationException extends RuntimeException {
+  /**
+   * Returns an exception whose message is {@code template} with each {@code %s} replaced by the
+   * next of {@code args}. The message is only formatted if it's read, which saves building
+   * strings for failures that are handled without looking at it.
+   */
+  public static ValidationException format(String template, Object... args) {
+    if (template == null) throw new IllegalArgumentException("template == null");
+    return new ValidationException(template, args, null, null, true);
+  }
+
+  private transient @Nullable String template;
+  private transient @Nullable Object[] args;
+  /** The formatted message, once it's been read. */
+  private volatile @Nullable String formattedMessage;
+  private transient @Nullable ValidationPath path;
+  /** The rendered path, which is what's serialized of it. */
+  private @Nullable String serializedPath;
+  /**
+   * False for exceptions without a writable stack trace, which are taken to be shared, and so are
+   * never given a path.
+   */
+  private final boolean locatable;
+  /**
+   * True if this was created without a cause, through a constructor that can't leave it unset.
+   * {@link #initCause} still works on these, and sets {@link #lateCause}.
+   */
+  private final boolean causeUnset;
+  private @Nullable Throwable lateCause;
+
   public ValidationException() {
+    this.locatable = true;
+    this.causeUnset = false;
   }
 
   public ValidationException(String message) {
     super(message);
+    this.locatable = true;
+    this.causeUnset = false;
   }
 
   public ValidationException(String message, Throwable cause) {
     super(message, cause);
+    this.locatable = true;
+    this.causeUnset = false;
   }
 
   public ValidationException(Throwable cause) {
     super(cause);
+    this.locatable = true;
+    this.causeUnset = false;
   }
 
+  /**
+   * Creates an exception like {@link RuntimeException#RuntimeException(String, Throwable,
+   * boolean, boolean)}. Exceptions without a writable stack trace are meant to be preallocated
+   * and thrown more than once, so validators leave their {@linkplain #path() path} empty; {@link
+   * ValidationResult#path()} still reports where they were thrown.
+   */
   public ValidationException(String message,
       Throwable cause,
       boolean enableSuppression,
       boolean writableStackTrace) {
     super(message, cause, enableSuppression, writableStackTrace);
+    this.locatable = writableStackTrace;
+    this.causeUnset = false;
+  }
+
+  /** Creates an exception whose message is formatted from {@code template} once it's read. */
+  ValidationException(String template,
+      @Nullable Object[] args,
+      @Nullable Throwable cause,
+      @Nullable ValidationPath path,
+      boolean writableStackTrace) {
+    super(null, cause, true, writableStackTrace);
+    this.template = template;
+    this.args = args;
+    this.path = path;
+    this.locatable = true;
+    this.causeUnset = cause == null;
+  }
+
+  @Override public @Nullable String getMessage() {
+    String formattedMessage = this.formattedMessage;
+    if (formattedMessage != null) return formattedMessage;
+    if (template == null) return super.getMessage();
+    formattedMessage = Util.format(template, args);
+    this.formattedMessage = formattedMessage;
+    return formattedMessage;
+  }
+
+  /**
+   * Returns the template this exception's message was formatted from, such as {@code "%s threw an
+   * exception when called."}, or null if it was given a plain message. Failures of one kind share
+   * their template, whatever the values it was formatted with.
+   */
+  public @Nullable String messageTemplate() {
+    return args != null ? template : null;
+  }
+
+  @Override public synchronized @Nullable Throwable getCause() {
+    return lateCause != null ? lateCause : super.getCause();
+  }
+
+  @Override public synchronized Throwable initCause(Throwable cause) {
+    if (!causeUnset) return super.initCause(cause);
+    if (lateCause != null) throw new IllegalStateException("Can't overwrite cause", this);
+    if (cause == this) throw new IllegalArgumentException("Self-causation not permitted", this);
+    lateCause = cause;
+    return this;
+  }
+
+  /**
+   * Returns where the failure is within the validated value, such as {@code items[42].sku}, or
+   * an empty string if it's the value itself. Brackets and backslashes within map keys are escaped
+   * with a backslash, e.g. {@code tags[a\[b\]]} for the key {@code a[b]}.
+   */
+  public String path() {
+    if (path != null) return path.toString();
+    return serializedPath != null ? serializedPath : "";
+  }
+
+  /** Returns the path of this failure, or null if it's the validated value itself. */
+  @Nullable ValidationPath location() {
+    return path;
+  }
+
+  /**
+   * Prepends the property {@code name} to the path of this failure, for validators that validate
+   * the properties of a value, and returns this exception. Shared exceptions are left alone.
+   */
+  public ValidationException prependProperty(String name) {
+    if (name == null) throw new IllegalArgumentException("name == null");
+    prepend(ValidationPath.property(name, null));
+    return this;
+  }
+
+  /**
+   * Prepends the element {@code index} to the path of this failure, for validators that validate
+   * the elements of a list or array, and returns this exception.
+   */
+  public ValidationException prependIndex(int index) {
+    prepend(ValidationPath.index(index, null));
+    return this;
+  }
+
+  /**
+   * Prepends the key {@code key} to the path of this failure, for validators that validate the
+   * keys or values of a map, and returns this exception.
+   */
+  public ValidationException prependKey(@Nullable Object key) {
+    prepend(ValidationPath.key(key, null));
+    return this;
+  }
+
+  /** Prepends {@code prefix} to the path of this failure, unless it's shared. */
+  void prepend(ValidationPath prefix) {
+    if (locatable) path = prefix.concat(path);
+  }
+
+  /** Sets the path of this failure to {@code path}, unless it's shared. */
+  void locate(@Nullable ValidationPath path) {
+    if (locatable) this.path = path;
+  }
+
+  @Override public String toString() {
+    String path = path();
+    return path.isEmpty() ? super.toString() : super.toString() + " (at " + path + ")";
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    // The arguments and keys needn't be serializable, so write the strings they format instead.
+    getMessage();
+    serializedPath = path();
+    out.defaultWriteObject();
   }
 }
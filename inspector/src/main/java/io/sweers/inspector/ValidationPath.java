@@ -0,0 +1,83 @@
+package io.sweers.inspector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Where a failure is within the validated value, such as {@code items[42].sku}. Paths are built
+ * from the inside out while a failure propagates, each validator prepending the segment it
+ * descended into, so validation that passes never builds one. Paths are immutable, so segments
+ * are shared, and they're only rendered into a string if it's read. Map keys are rendered with
+ * {@link String#valueOf(Object)}, with brackets and backslashes escaped by a backslash.
+ */
+final class ValidationPath {
+  private static final int PROPERTY = 0;
+  private static final int INDEX = 1;
+  private static final int KEY = 2;
+
+  static ValidationPath property(String name, @Nullable ValidationPath next) {
+    return new ValidationPath(PROPERTY, name, 0, next);
+  }
+
+  static ValidationPath index(int index, @Nullable ValidationPath next) {
+    return new ValidationPath(INDEX, null, index, next);
+  }
+
+  static ValidationPath key(@Nullable Object key, @Nullable ValidationPath next) {
+    return new ValidationPath(KEY, key, 0, next);
+  }
+
+  private final int kind;
+  /** The property name or map key. */
+  private final @Nullable Object segment;
+  private final int index;
+  private final @Nullable ValidationPath next;
+
+  private ValidationPath(int kind,
+      @Nullable Object segment,
+      int index,
+      @Nullable ValidationPath next) {
+    this.kind = kind;
+    this.segment = segment;
+    this.index = index;
+    this.next = next;
+  }
+
+  /** Returns this path followed by {@code suffix}. */
+  ValidationPath concat(@Nullable ValidationPath suffix) {
+    if (suffix == null) return this;
+    ValidationPath rest = next != null ? next.concat(suffix) : suffix;
+    return new ValidationPath(kind, segment, index, rest);
+  }
+
+  @Override public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (ValidationPath path = this; path != null; path = path.next) {
+      switch (path.kind) {
+        case PROPERTY:
+          if (path != this) builder.append('.');
+          builder.append(path.segment);
+          break;
+        case INDEX:
+          builder.append('[')
+              .append(path.index)
+              .append(']');
+          break;
+        default:
+          builder.append('[');
+          appendKey(builder, String.valueOf(path.segment));
+          builder.append(']');
+          break;
+      }
+    }
+    return builder.toString();
+  }
+
+  /** Appends {@code key}, escaping brackets and backslashes so that the key can be parsed out. */
+  private static void appendKey(StringBuilder builder, String key) {
+    for (int i = 0, length = key.length(); i < length; i++) {
+      char c = key.charAt(i);
+      if (c == '[' || c == ']' || c == '\\') builder.append('\\');
+      builder.append(c);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package io.sweers.inspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The outcome of {@link Validator#check}. Valid results are a shared instance, so checking a valid
+ * value allocates nothing, and invalid ones describe the failure without throwing, so rejecting a
+ * value doesn't pay for capturing a stack trace either. Use {@link #toException()} to get the
+ * failure as the exception that {@link Validator#validate} would have thrown.
+ */
+public final class ValidationResult {
+  private static final ValidationResult VALID =
+      new ValidationResult(null, null, null, null, null, null);
+
+  /** Returns the result of a successful validation. */
+  public static ValidationResult valid() {
+    return VALID;
+  }
+
+  /** Returns a failed result with {@code message}. */
+  public static ValidationResult invalid(String message) {
+    if (message == null) throw new IllegalArgumentException("message == null");
+    return new ValidationResult(message, null, null, null, null, null);
+  }
+
+  /** Returns a failed result with {@code message}, caused by {@code cause}. */
+  public static ValidationResult invalid(String message, Throwable cause) {
+    if (message == null) throw new IllegalArgumentException("message == null");
+    if (cause == null) throw new IllegalArgumentException("cause == null");
+    return new ValidationResult(message, null, cause, null, null, null);
+  }
+
+  /**
+   * Returns a failed result whose message is {@code template} with each {@code %s} replaced by
+   * the next of {@code args}, like {@link ValidationException#format}. It's only formatted if
+   * it's read.
+   */
+  public static ValidationResult invalidFormat(String template, Object... args) {
+    if (template == null) throw new IllegalArgumentException("template == null");
+    return new ValidationResult(template, args, null, null, null, null);
+  }
+
+  /** Like {@link #invalidFormat}, caused by {@code cause}. */
+  static ValidationResult invalidFormat(Throwable cause, String template, Object... args) {
+    return new ValidationResult(template, args, cause, null, null, null);
+  }
+
+  /**
+   * Returns a failed result for {@code exception}, which was already thrown. {@link
+   * #toException()} returns the same instance, with the path that validators of enclosing values
+   * added to this result. A {@link CompositeValidationException} is taken apart into a failure for
+   * each of its exceptions.
+   */
+  public static ValidationResult of(ValidationException exception) {
+    if (exception == null) throw new IllegalArgumentException("exception == null");
+    if (exception instanceof CompositeValidationException) {
+      // Each of its exceptions has its own path, so they're each a failure of their own.
+      List<ValidationException> exceptions =
+          ((CompositeValidationException) exception).getExceptions();
+      List<ValidationResult> failures = new ArrayList<>(exceptions.size());
+      for (ValidationException e : exceptions) {
+        failures.add(of(e));
+      }
+      return composite(failures);
+    }
+    return new ValidationResult(null, null, null, exception, null, exception.location());
+  }
+
+  /** Returns a failed result that's made up of more than one {@code failures}. */
+  static ValidationResult composite(List<ValidationResult> failures) {
+    return new ValidationResult(null, null, null, null, failures, null);
+  }
+
+  /** Returns the result of a validation that collected {@code failures}, which may be none. */
+  static ValidationResult ofFailures(@Nullable List<ValidationResult> failures) {
+    if (failures == null) return VALID;
+    return failures.size() == 1 ? failures.get(0) : composite(failures);
+  }
+
+  /** The message, or its template if there are arguments. */
+  private final @Nullable String template;
+  private final @Nullable Object[] args;
+  private final @Nullable Throwable cause;
+  private final @Nullable ValidationException exception;
+  private final @Nullable List<ValidationResult> failures;
+  private final @Nullable ValidationPath path;
+
+  private ValidationResult(@Nullable String template,
+      @Nullable Object[] args,
+      @Nullable Throwable cause,
+      @Nullable ValidationException exception,
+      @Nullable List<ValidationResult> failures,
+      @Nullable ValidationPath path) {
+    this.template = template;
+    this.args = args;
+    this.cause = cause;
+    this.exception = exception;
+    this.failures = failures;
+    this.path = path;
+  }
+
+  public boolean isValid() {
+    return this == VALID;
+  }
+
+  /** Returns the message describing the failure, or null if this result is valid. */
+  public @Nullable String message() {
+    if (exception != null) return exception.getMessage();
+    if (failures != null) return CompositeValidationException.createMessage(messages());
+    return template != null ? Util.format(template, args) : null;
+  }
+
+  /**
+   * Returns where the failure is within the validated value, such as {@code items[42].sku}, or
+   * an empty string if it's the value itself or this result is valid. Results made up of more
+   * than one failure have an empty path, and each of their {@link #failures()} has its own.
+   */
+  public String path() {
+    return path != null ? path.toString() : "";
+  }
+
+  /** Returns this failure at the property {@code name} of the validated value. */
+  ValidationResult prependProperty(String name) {
+    return isValid() ? this : prepend(ValidationPath.property(name, null));
+  }
+
+  /** Returns this failure at the element {@code index} of the validated value. */
+  ValidationResult prependIndex(int index) {
+    return isValid() ? this : prepend(ValidationPath.index(index, null));
+  }
+
+  /** Returns this failure at the key {@code key} of the validated value. */
+  ValidationResult prependKey(@Nullable Object key) {
+    return isValid() ? this : prepend(ValidationPath.key(key, null));
+  }
+
+  private ValidationResult prepend(ValidationPath segment) {
+    if (failures != null) {
+      List<ValidationResult> prepended = new ArrayList<>(failures.size());
+      for (ValidationResult failure : failures) {
+        prepended.add(failure.prepend(segment));
+      }
+      return composite(prepended);
+    }
+    // Thrown exceptions may be shared, so their path is kept here until they're thrown again.
+    return new ValidationResult(template, args, cause, exception, null, segment.concat(path));
+  }
+
+  /**
+   * Returns the failures that make up this result: more than one if it's the result of a {@link
+   * CompositeValidator}, none if it's valid, and this one otherwise.
+   */
+  public List<ValidationResult> failures() {
+    if (failures != null) return unmodifiableList(failures);
+    if (isValid()) return emptyList();
+    return singletonList(this);
+  }
+
+  /**
+   * Returns the exception that {@link Validator#validate} throws for this failure.
+   *
+   * @throws IllegalStateException if this result is valid.
+   */
+  public ValidationException toException() {
+    return toException(true);
+  }
+
+  /**
+   * Returns the exception for this failure, without capturing a stack trace unless {@code
+   * writableStackTrace}. Exceptions that were already thrown are returned as-is either way, with
+   * this failure's path.
+   */
+  ValidationException toException(boolean writableStackTrace) {
+    if (isValid()) throw new IllegalStateException("result is valid");
+    if (exception != null) {
+      exception.locate(path);
+      return exception;
+    }
+    if (failures != null) {
+      List<ValidationException> exceptions = new ArrayList<>(failures.size());
+      for (ValidationResult failure : failures) {
+        exceptions.add(failure.toException(writableStackTrace));
+      }
+      return new CompositeValidationException(exceptions, writableStackTrace);
+    }
+    return new ValidationException(template, args, cause, path, writableStackTrace);
+  }
+
+  /** Throws {@link #toException()} unless this result is valid. */
+  public void throwIfInvalid() throws ValidationException {
+    if (!isValid()) throw toException(true);
+  }
+
+  /** Like {@link #throwIfInvalid()}, without capturing a stack trace unless it's writable. */
+  void throwIfInvalid(boolean writableStackTrace) throws ValidationException {
+    if (!isValid()) throw toException(writableStackTrace);
+  }
+
+  private List<String> messages() {
+    List<String> messages = new ArrayList<>(failures.size());
+    for (ValidationResult failure : failures) {
+      messages.add(failure.message());
+    }
+    return messages;
+  }
+
+  @Override public String toString() {
+    if (isValid()) return "ValidationResult(valid)";
+    String path = path();
+    return path.isEmpty()
+        ? "ValidationResult(" + message() + ")"
+        : "ValidationResult(" + message() + " at " + path + ")";
+  }
+}
@@ -20,31 +20,48 @@ public abstract class Validator<T> {
    */
   public abstract void validate(T t) throws ValidationException;
 
-  public final boolean isValid(T validationTarget) {
+  /**
+   * Validates {@code validationTarget} like {@link #validate}, but reports a failure as a result
+   * rather than by throwing. The built-in validators implement this without creating exceptions,
+   * which makes it the cheaper way to validate input that's often invalid. Validators that only
+   * implement {@link #validate} have their exceptions caught and wrapped.
+   */
+  public ValidationResult check(T validationTarget) {
     try {
       validate(validationTarget);
-      return true;
+      return ValidationResult.valid();
     } catch (ValidationException e) {
-      return false;
+      return ValidationResult.of(e);
     }
   }
 
+  public final boolean isValid(T validationTarget) {
+    return check(validationTarget).isValid();
+  }
+
+  /**
+   * Returns true if this validator accepts everything, null included, so that validators composing
+   * it can skip calling it altogether.
+   */
+  boolean isNoOp() {
+    return false;
+  }
+
   /**
    * @return a nullsafe validator that ignores null instances.
    */
   public Validator<T> nullSafe() {
-    final Validator<T> delegate = this;
-    return new Validator<T>() {
-      @Override public void validate(T validationTarget) throws ValidationException {
-        if (validationTarget != null) {
-          delegate.validate(validationTarget);
-        }
-      }
+    if (isNoOp() || this instanceof NullSafeValidator) return this;
+    return new NullSafeValidator<>(this);
+  }
 
-      @Override public String toString() {
-        return delegate + ".nullSafe()";
-      }
-    };
+  /**
+   * Returns a validator that validates non-null values just like this one, minus the wrappers that
+   * only forward to another validator. Validators that check for null themselves use it to save a
+   * call, and a frame, per value.
+   */
+  Validator<T> nonNullDelegate() {
+    return this;
   }
 
   public interface Factory {
@@ -55,9 +72,38 @@ public abstract class Validator<T> {
      *
      * <p>Implementations may use to {@link Inspector#validator} to compose adapters of other types,
      * or {@link Inspector#nextValidator} to delegate to the underlying adapter of the same type.
+     * Look them up here rather than keeping {@code inspector} in the adapter: adapters of classes
+     * are stored in those classes, so one that keeps its inspector keeps it reachable for as long
+     * as the class is loaded.
      */
     @Nullable Validator<?> create(Type type,
         Set<? extends Annotation> annotations,
         Inspector inspector);
   }
+
+  private static final class NullSafeValidator<T> extends Validator<T> {
+    private final Validator<T> delegate;
+
+    NullSafeValidator(Validator<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override public void validate(T validationTarget) throws ValidationException {
+      if (validationTarget != null) {
+        delegate.validate(validationTarget);
+      }
+    }
+
+    @Override public ValidationResult check(T validationTarget) {
+      return validationTarget != null ? delegate.check(validationTarget) : ValidationResult.valid();
+    }
+
+    @Override Validator<T> nonNullDelegate() {
+      return delegate.nonNullDelegate();
+    }
+
+    @Override public String toString() {
+      return delegate + ".nullSafe()";
+    }
+  }
 }
@@ -0,0 +1,162 @@
+package io.sweers.inspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Maps cache keys, as returned by {@link Inspector#cacheKey}, to their {@link Resolution}: the
+ * validator, along with what an inspector created with {@link Inspector#newBuilder()} needs to tell
+ * whether it can share it. Plain classes are the most common keys, so they're stored in {@link
+ * ClassSlots}. That skips hashing the key, and lets classes be unloaded along with their
+ * validators, at the cost described there of an entry per cache in each class that's looked up.
+ * Every other key is stored in a concurrent map.
+ *
+ * <p>A cache with a maximum size holds at most that many of those other keys, not counting pinned
+ * ones. Past that, it evicts with the CLOCK algorithm: lookups mark entries as referenced, and
+ * eviction walks entries in insertion order, giving referenced ones a second chance. Lookups never
+ * lock; only threads inserting past the limit do.
+ */
+final class ValidatorCache {
+  /** Notified of keys evicted from a bounded cache. */
+  interface EvictionListener {
+    void onEviction(Object cacheKey, Validator<?> validator);
+  }
+
+  private final ClassSlots<Resolution> classResolutions = ClassSlots.create();
+  /** The classes in {@link #classResolutions}, which can't be enumerated otherwise. */
+  private final Map<Class<?>, Boolean> classes =
+      Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+  /** Every entry of an unbounded cache, or the pinned ones of a bounded cache. */
+  private final ConcurrentMap<Object, Resolution> resolutions = new ConcurrentHashMap<>();
+
+  private final int maximumSize;
+  private final @Nullable EvictionListener evictionListener;
+  private final @Nullable ConcurrentMap<Object, BoundedEntry> boundedResolutions;
+  private final @Nullable Queue<BoundedEntry> clock;
+  private final AtomicInteger boundedSize = new AtomicInteger();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  ValidatorCache() {
+    this(0, null);
+  }
+
+  /** Creates a cache that's bounded to {@code maximumSize} entries, or unbounded if it's 0. */
+  ValidatorCache(int maximumSize, @Nullable EvictionListener evictionListener) {
+    this.maximumSize = maximumSize;
+    this.evictionListener = evictionListener;
+    this.boundedResolutions =
+        maximumSize > 0 ? new ConcurrentHashMap<Object, BoundedEntry>() : null;
+    this.clock = maximumSize > 0 ? new ConcurrentLinkedQueue<BoundedEntry>() : null;
+  }
+
+  @Nullable Validator<?> get(Object cacheKey) {
+    Resolution resolution = resolution(cacheKey);
+    return resolution != null ? resolution.validator : null;
+  }
+
+  @Nullable Resolution resolution(Object cacheKey) {
+    if (cacheKey instanceof Class) {
+      return classResolutions.get((Class<?>) cacheKey);
+    }
+    Resolution resolution = resolutions.get(cacheKey);
+    if (resolution != null || boundedResolutions == null) return resolution;
+
+    BoundedEntry entry = boundedResolutions.get(cacheKey);
+    if (entry == null) return null;
+    if (!entry.referenced) entry.referenced = true;
+    return entry.resolution;
+  }
+
+  /** Caches {@code resolution} unless there's one already, and returns the validator cached. */
+  Validator<?> putIfAbsent(Object cacheKey, Resolution resolution) {
+    if (cacheKey instanceof Class) {
+      return putIfAbsent((Class<?>) cacheKey, resolution);
+    }
+    if (boundedResolutions == null) {
+      Resolution existing = resolutions.putIfAbsent(cacheKey, resolution);
+      return existing != null ? existing.validator : resolution.validator;
+    }
+
+    BoundedEntry entry = new BoundedEntry(cacheKey, resolution);
+    BoundedEntry existing = boundedResolutions.putIfAbsent(cacheKey, entry);
+    if (existing != null) return existing.resolution.validator;
+    clock.add(entry);
+    if (boundedSize.incrementAndGet() > maximumSize) evict();
+    return resolution.validator;
+  }
+
+  /** Like {@link #putIfAbsent}, but a bounded cache never evicts the entry. */
+  Validator<?> pin(Object cacheKey, Resolution resolution) {
+    if (cacheKey instanceof Class) {
+      return putIfAbsent((Class<?>) cacheKey, resolution);
+    }
+    Resolution existing = resolutions.putIfAbsent(cacheKey, resolution);
+    return existing != null ? existing.validator : resolution.validator;
+  }
+
+  private Validator<?> putIfAbsent(Class<?> type, Resolution resolution) {
+    Resolution cached = classResolutions.putIfAbsent(type, resolution);
+    if (cached == resolution) classes.put(type, Boolean.TRUE);
+    return cached.validator;
+  }
+
+  /** Returns a snapshot of the keys that have been resolved. */
+  List<Object> keys() {
+    List<Object> keys;
+    synchronized (classes) {
+      keys = new ArrayList<Object>(classes.keySet());
+    }
+    keys.addAll(resolutions.keySet());
+    if (boundedResolutions != null) keys.addAll(boundedResolutions.keySet());
+    return keys;
+  }
+
+  private void evict() {
+    synchronized (clock) {
+      // Bound the number of second chances, in case other threads keep referencing everything.
+      int secondChances = boundedSize.get();
+      while (boundedSize.get() > maximumSize) {
+        BoundedEntry entry = clock.poll();
+        if (entry == null) return;
+        if (entry.referenced && secondChances-- > 0) {
+          entry.referenced = false;
+          clock.add(entry);
+          continue;
+        }
+        if (boundedResolutions.remove(entry.cacheKey, entry)) {
+          boundedSize.decrementAndGet();
+          evictionCount.incrementAndGet();
+          if (evictionListener != null) {
+            evictionListener.onEviction(entry.cacheKey, entry.resolution.validator);
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns the number of entries that were evicted to stay within the maximum size. */
+  long evictionCount() {
+    return evictionCount.get();
+  }
+
+  private static final class BoundedEntry {
+    final Object cacheKey;
+    final Resolution resolution;
+    volatile boolean referenced;
+
+    BoundedEntry(Object cacheKey, Resolution resolution) {
+      this.cacheKey = cacheKey;
+      this.resolution = resolution;
+    }
+  }
+}
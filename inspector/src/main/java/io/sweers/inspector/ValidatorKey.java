@@ -0,0 +1,98 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * A handle for the validator of a type, obtained once with {@link Inspector#key} and passed to
+ * {@link Inspector#validator(ValidatorKey)} on each use. Looking a key up is an array index, which
+ * skips canonicalizing and hashing the type on every call.
+ *
+ * <p>Keys from an inspector also work with the inspectors derived from it with {@link
+ * Inspector#newBuilder()}, and vice versa. A key stays valid after its validator is evicted from
+ * a {@link Inspector.Builder#maximumCacheSize bounded cache}; its validator is just created again
+ * on its next use.
+ */
+public final class ValidatorKey<T> {
+  /**
+   * The index of keys for plain classes. Their validators are already stored per class, which is
+   * as fast as a slot and doesn't keep the class from being unloaded.
+   */
+  static final int NO_SLOT = Integer.MAX_VALUE;
+
+  /**
+   * The {@link Registry#id} of the registry that handed this out. Not the registry itself, since
+   * keys of plain classes are stored in their classes, which would then keep it reachable.
+   */
+  final Object registry;
+  final int index;
+  final Type type;
+  final Set<? extends Annotation> annotations;
+  final Object cacheKey;
+
+  ValidatorKey(Object registry, int index, Type type, Set<? extends Annotation> annotations,
+      Object cacheKey) {
+    this.registry = registry;
+    this.index = index;
+    this.type = type;
+    this.annotations = annotations;
+    this.cacheKey = cacheKey;
+  }
+
+  public Type type() {
+    return type;
+  }
+
+  public Set<? extends Annotation> annotations() {
+    return annotations;
+  }
+
+  @Override public String toString() {
+    return "ValidatorKey(" + type + " annotated " + annotations + ")";
+  }
+
+  /**
+   * Hands out one key, with its own slot index, per cache key. Inspectors derived from each other
+   * share a registry, so that their slot tables line up. Keys for plain classes are stored per
+   * class, and other keys are forgotten when their validator is evicted, so that the registry
+   * doesn't keep types reachable that the caches have let go of.
+   */
+  static final class Registry {
+    final Object id = new Object();
+    private final ClassSlots<ValidatorKey<?>> classKeys = ClassSlots.create();
+    private final ConcurrentMap<Object, ValidatorKey<?>> keys = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /** Returns the key for {@code type} and {@code annotations}. {@code type} must be canonical. */
+    ValidatorKey<?> key(Type type, Set<? extends Annotation> annotations, Object cacheKey) {
+      ValidatorKey<?> key = get(cacheKey);
+      if (key != null) return key;
+
+      if (cacheKey instanceof Class) {
+        key = new ValidatorKey<>(id, NO_SLOT, type, annotations, cacheKey);
+        return classKeys.putIfAbsent((Class<?>) cacheKey, key);
+      }
+      // Racing threads may each take an index, leaving a few unused slots. That's harmless.
+      key = new ValidatorKey<>(id, nextIndex.getAndIncrement(), type, annotations, cacheKey);
+      ValidatorKey<?> existing = keys.putIfAbsent(cacheKey, key);
+      return existing != null ? existing : key;
+    }
+
+    /** Forgets the key for {@code cacheKey}, which isn't a plain class, and returns it. */
+    @Nullable ValidatorKey<?> remove(Object cacheKey) {
+      return keys.remove(cacheKey);
+    }
+
+    private @Nullable ValidatorKey<?> get(Object cacheKey) {
+      if (cacheKey instanceof Class) {
+        return classKeys.get((Class<?>) cacheKey);
+      }
+      return keys.get(cacheKey);
+    }
+  }
+}
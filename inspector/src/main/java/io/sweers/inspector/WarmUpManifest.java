@@ -0,0 +1,236 @@
+package io.sweers.inspector;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes the warm-up manifests recorded by {@link Inspector#writeWarmUpManifest}. A
+ * manifest is a text file with one lookup per line: the type, then optionally a tab and the
+ * comma-separated names of its qualifier annotations. Lookups that can't be written down, such as
+ * those involving type variables or qualifiers with elements, are left out.
+ */
+final class WarmUpManifest {
+  private static final String HEADER = "# inspector warm-up manifest v1";
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private WarmUpManifest() {
+  }
+
+  static void write(File file, Collection<?> cacheKeys) throws IOException {
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+      writer.write(HEADER);
+      writer.write('\n');
+      StringBuilder line = new StringBuilder();
+      for (Object cacheKey : cacheKeys) {
+        line.setLength(0);
+        if (appendKey(line, cacheKey)) {
+          writer.append(line).append('\n');
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the lookups in {@code file}. Lines that can't be parsed, or that name classes which
+   * {@code classLoader} can't load, are skipped since their types have likely changed since the
+   * manifest was recorded.
+   */
+  static List<CacheKey> read(File file, ClassLoader classLoader) throws IOException {
+    List<CacheKey> result = new ArrayList<>();
+    try (BufferedReader reader =
+             new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8))) {
+      if (!HEADER.equals(reader.readLine())) return result;
+      for (String line; (line = reader.readLine()) != null; ) {
+        try {
+          result.add(parseKey(line, classLoader));
+        } catch (ClassNotFoundException | RuntimeException ignored) {
+        }
+      }
+    }
+    return result;
+  }
+
+  private static boolean appendKey(StringBuilder out, Object cacheKey) {
+    Type type;
+    Set<? extends Annotation> annotations;
+    if (cacheKey instanceof CacheKey) {
+      type = ((CacheKey) cacheKey).type;
+      annotations = ((CacheKey) cacheKey).annotations;
+    } else {
+      type = (Type) cacheKey;
+      annotations = Util.NO_ANNOTATIONS;
+    }
+    if (!appendType(out, type)) return false;
+    char separator = '\t';
+    for (Annotation annotation : annotations) {
+      Class<? extends Annotation> annotationType = annotation.annotationType();
+      if (annotationType.getDeclaredMethods().length != 0) return false;
+      out.append(separator).append(annotationType.getName());
+      separator = ',';
+    }
+    return true;
+  }
+
+  private static boolean appendType(StringBuilder out, Type type) {
+    if (type instanceof Class) {
+      Class<?> rawType = (Class<?>) type;
+      if (rawType.isArray()) {
+        if (!appendType(out, rawType.getComponentType())) return false;
+        out.append("[]");
+        return true;
+      }
+      out.append(rawType.getName());
+      return true;
+
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      out.append(((Class<?>) parameterizedType.getRawType()).getName()).append('<');
+      Type[] typeArguments = parameterizedType.getActualTypeArguments();
+      for (int i = 0; i < typeArguments.length; i++) {
+        if (i > 0) out.append(',');
+        if (!appendType(out, typeArguments[i])) return false;
+      }
+      out.append('>');
+      return true;
+
+    } else if (type instanceof GenericArrayType) {
+      if (!appendType(out, ((GenericArrayType) type).getGenericComponentType())) return false;
+      out.append("[]");
+      return true;
+
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      Type[] lowerBounds = wildcardType.getLowerBounds();
+      if (lowerBounds.length == 1) {
+        out.append("? super ");
+        return appendType(out, lowerBounds[0]);
+      }
+      Type upperBound = wildcardType.getUpperBounds()[0];
+      if (upperBound == Object.class) {
+        out.append('?');
+        return true;
+      }
+      out.append("? extends ");
+      return appendType(out, upperBound);
+
+    } else {
+      // Type variables can't be resolved again on the next run.
+      return false;
+    }
+  }
+
+  private static CacheKey parseKey(String line, ClassLoader classLoader)
+      throws ClassNotFoundException {
+    int tab = line.indexOf('\t');
+    String typeString = tab == -1 ? line : line.substring(0, tab);
+    TypeParser parser = new TypeParser(typeString, classLoader);
+    Type type = parser.parseType();
+    if (!parser.isDone()) throw new IllegalArgumentException("Unexpected type " + typeString);
+
+    if (tab == -1) return new CacheKey(Types.canonicalize(type), Util.NO_ANNOTATIONS);
+    Set<Annotation> annotations = new LinkedHashSet<>();
+    for (String name : line.substring(tab + 1).split(",")) {
+      Class<? extends Annotation> annotationType =
+          Class.forName(name, false, classLoader).asSubclass(Annotation.class);
+      annotations.addAll(Types.qualifierAnnotations(annotationType));
+    }
+    return new CacheKey(Types.canonicalize(type), annotations);
+  }
+
+  /** A recursive descent parser for the types written by {@link #appendType}. */
+  private static final class TypeParser {
+    private final String input;
+    private final ClassLoader classLoader;
+    private int pos;
+
+    TypeParser(String input, ClassLoader classLoader) {
+      this.input = input;
+      this.classLoader = classLoader;
+    }
+
+    boolean isDone() {
+      return pos == input.length();
+    }
+
+    Type parseType() throws ClassNotFoundException {
+      if (consume("? super ")) return Types.supertypeOf(parseType());
+      if (consume("? extends ")) return Types.subtypeOf(parseType());
+      if (consume("?")) return Types.subtypeOf(Object.class);
+
+      int start = pos;
+      while (pos < input.length() && "<>,[".indexOf(input.charAt(pos)) == -1) {
+        pos++;
+      }
+      Type type = loadClass(input.substring(start, pos));
+      if (consume("<")) {
+        List<Type> typeArguments = new ArrayList<>();
+        do {
+          typeArguments.add(parseType());
+        } while (consume(","));
+        if (!consume(">")) throw new IllegalArgumentException("Unterminated type " + input);
+        Class<?> rawType = (Class<?>) type;
+        Type[] arguments = typeArguments.toArray(new Type[typeArguments.size()]);
+        Class<?> ownerType = rawType.getEnclosingClass();
+        type = ownerType == null
+            ? Types.newParameterizedType(rawType, arguments)
+            : Types.newParameterizedTypeWithOwner(ownerType, rawType, arguments);
+      }
+      while (consume("[]")) {
+        type = Types.arrayOf(type);
+      }
+      return type;
+    }
+
+    private boolean consume(String token) {
+      if (!input.startsWith(token, pos)) return false;
+      pos += token.length();
+      return true;
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+      Class<?> primitive = primitiveType(name);
+      return primitive != null ? primitive : Class.forName(name, false, classLoader);
+    }
+
+    private static @Nullable Class<?> primitiveType(String name) {
+      switch (name) {
+        case "boolean":
+          return boolean.class;
+        case "byte":
+          return byte.class;
+        case "char":
+          return char.class;
+        case "double":
+          return double.class;
+        case "float":
+          return float.class;
+        case "int":
+          return int.class;
+        case "long":
+          return long.class;
+        case "short":
+          return short.class;
+        default:
+          return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package io.sweers.inspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public final class AdaptiveOrderTest {
+  public static class Rejected {
+    int aCalls;
+
+    public String a() {
+      aCalls++;
+      return "a";
+    }
+
+    public String z() {
+      return null;
+    }
+  }
+
+  @Test public void adaptiveCheckOrder() {
+    Validator<Rejected> validator = new Inspector.Builder().adaptiveCheckOrder()
+        .build()
+        .validator(Rejected.class);
+    Rejected rejected = new Rejected();
+    for (int i = 0; i < 2048; i++) {
+      assertThat(validator.isValid(rejected)).isFalse();
+    }
+    // z() always fails, so it's moved ahead of a().
+    int aCalls = rejected.aCalls;
+    assertThat(aCalls).isLessThan(2048);
+    assertThat(validator.isValid(rejected)).isFalse();
+    assertThat(rejected.aCalls).isEqualTo(aCalls);
+  }
+
+  @Test public void concurrentReordering() throws Exception {
+    final Validator<Rejected> validator = new Inspector.Builder().adaptiveCheckOrder()
+        .build()
+        .validator(Rejected.class);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(new Callable<Boolean>() {
+          @Override public Boolean call() {
+            Rejected rejected = new Rejected();
+            boolean anyValid = false;
+            for (int i = 0; i < 20_000; i++) {
+              anyValid |= validator.isValid(rejected);
+            }
+            return anyValid;
+          }
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get()).isFalse();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // Whichever thread reordered last, z() ended up first.
+    Rejected rejected = new Rejected();
+    assertThat(validator.isValid(rejected)).isFalse();
+    assertThat(rejected.aCalls).isEqualTo(0);
+  }
+}
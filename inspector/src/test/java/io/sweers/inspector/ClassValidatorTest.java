@@ -0,0 +1,173 @@
+package io.sweers.inspector;
+
+import io.sweers.inspector.TestModels.Data;
+import io.sweers.inspector.TestModels.NonEmpty;
+import io.sweers.inspector.TestModels.Primitives;
+import io.sweers.inspector.TestModels.Wrapper;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+import static io.sweers.inspector.TestModels.validator;
+
+public final class ClassValidatorTest {
+  @Test public void noOpValidatorsAreElided() {
+    Inspector inspector = new Inspector.Builder().build();
+    assertThat(inspector.validator(Types.newParameterizedType(List.class, String.class)))
+        .isSameAs(StandardValidators.NO_OP_VALIDATOR);
+    assertThat(inspector.validator(int[].class)).isSameAs(StandardValidators.NO_OP_VALIDATOR);
+
+    Validator<Primitives> primitives = inspector.validator(Primitives.class);
+    assertThat(primitives.isNoOp()).isTrue();
+    primitives.validate(new Primitives());
+
+    // Null keys are still rejected, without iterating.
+    Validator<Map<String, Integer>> map =
+        inspector.validator(Types.newParameterizedType(Map.class, String.class, Integer.class));
+    Map<String, Integer> nullKey = new HashMap<>();
+    nullKey.put(null, 1);
+    assertThat(map.isValid(nullKey)).isFalse();
+    assertThat(map.isValid(new TreeMap<String, Integer>())).isTrue();
+  }
+
+  public static class DataSubclass extends Data {
+    public String extra() {
+      return "extra";
+    }
+  }
+
+  @Test public void classMetadataIsShared() {
+    ClassMetadata data = ClassMetadata.methods(Data.class);
+    assertThat(data.properties).hasLength(1);
+    assertThat(data.properties[0].name()).isEqualTo("thing");
+
+    assertThat(validator(DataSubclass.class).isValid(new DataSubclass())).isFalse();
+    validator(Data.class);
+    assertThat(ClassMetadata.methods(Data.class)).isSameAs(data);
+  }
+
+  public static class Fields {
+    String name = "name";
+    @Nullable String nickname;
+    int count;
+    transient Object cache;
+    @InspectorIgnored String ignored;
+    @ValidatedBy(NonEmpty.class) String tag = "";
+
+    public String name() {
+      throw new AssertionError("Fields are read, so methods shouldn't be called");
+    }
+  }
+
+  @Test public void validateFields() {
+    Inspector inspector = new Inspector.Builder().validateFields()
+        .build();
+    Validator<Fields> validator = inspector.validator(Fields.class);
+    Fields fields = new Fields();
+    assertThat(rejection(validator, fields)).hasMessageThat()
+        .isEqualTo("string is empty");
+    fields.tag = "tag";
+    // Read enough times that the getters are bound.
+    for (int i = 0; i < 20; i++) {
+      validator.validate(fields);
+    }
+    fields.name = null;
+    assertThat(rejection(validator, fields)).hasMessageThat()
+        .isEqualTo("Field name was null.");
+
+    // Reflective configurations aren't shared with derived inspectors that differ.
+    Inspector derived = inspector.newBuilder()
+        .build();
+    assertThat(derived.validator(Fields.class)).isSameAs(validator);
+    Inspector reflective = inspector.newBuilder()
+        .generatedGetters(false)
+        .build();
+    assertThat(reflective.validator(Fields.class)).isNotSameAs(validator);
+  }
+
+  @Test public void delegateValidatorsArePerInspector() throws Exception {
+    Inspector inspector = new Inspector.Builder().build();
+    Validator<?> nonEmpty = inspector.delegateValidator(NonEmpty.class);
+    assertThat(inspector.delegateValidator(NonEmpty.class)).isSameAs(nonEmpty);
+    assertThat(new Inspector.Builder().build()
+        .delegateValidator(NonEmpty.class)).isNotSameAs(nonEmpty);
+  }
+
+  @Test public void wrapperChainsAreFlattened() {
+    Validator<Data> invalidData = new Validator<Data>() {
+      @Override public void validate(Data data) throws ValidationException {
+        throw new ValidationException("data is invalid");
+      }
+    };
+    Validator<Wrapper> validator = new Inspector.Builder().add(Data.class, invalidData.nullSafe())
+        .build()
+        .validator(Wrapper.class);
+    ValidationException expected = rejection(validator, new Wrapper());
+    assertThat(expected).hasMessageThat()
+        .isEqualTo("data is invalid");
+    assertThat(expected.path()).isEqualTo("data");
+    // Wrapper's own validator is null-safe, but the binding of data() calls Data's directly.
+    ClassValidator<?> wrapper = (ClassValidator<?>) validator.nonNullDelegate();
+    assertThat(validator).isNotSameAs(wrapper);
+    assertThat(wrapper.binding("data").validator).isSameAs(invalidData);
+
+    Validator<String> nonEmpty = new NonEmpty();
+    assertThat(nonEmpty.nullSafe()
+        .nullSafe()
+        .nonNullDelegate()).isSameAs(nonEmpty);
+  }
+
+  public interface Identified {
+    Object id();
+  }
+
+  public interface Reading extends Identified {
+    /** Redeclared with a narrower type, which is the one that's validated. */
+    @Override String id();
+
+    @Nullable String unit();
+  }
+
+  /** A reading stored in place as a length-prefixed id. Empty ids are read as null. */
+  static final class BufferReading implements Reading {
+    private final ByteBuffer buffer;
+    int offset;
+
+    BufferReading(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override public @Nullable String id() {
+      int length = buffer.get(offset);
+      if (length == 0) return null;
+      byte[] id = new byte[length];
+      for (int i = 0; i < length; i++) {
+        id[i] = buffer.get(offset + 1 + i);
+      }
+      return new String(id, Charset.forName("US-ASCII"));
+    }
+
+    @Override public @Nullable String unit() {
+      return null;
+    }
+  }
+
+  @Test public void interfaces() {
+    Validator<Reading> validator = validator(Reading.class);
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 'a', 2, 'b', 'c', 0 });
+    BufferReading reading = new BufferReading(buffer);
+    assertThat(validator.isValid(reading)).isTrue();
+    reading.offset = 2;
+    assertThat(validator.isValid(reading)).isTrue();
+    reading.offset = 5;
+    assertThat(rejection(validator, reading)).hasMessageThat()
+        .isEqualTo("Returned value of id() was null.");
+  }
+}
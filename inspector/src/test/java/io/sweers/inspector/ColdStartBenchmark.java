@@ -0,0 +1,155 @@
+package io.sweers.inspector;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Measures how long it takes to create reflective validators for a large model graph, and to use
+ * each of them once. That's the cost an app pays at startup, before any getter is hot enough to be
+ * bound.
+ *
+ * <p>This generates {@value #CLASSES} model classes, each with {@value #GETTERS} getters covering
+ * strings, primitives, lists, maps, {@link ValidatedBy} and {@code @Nullable} references to other
+ * models. It compiles them, loads them in a fresh class loader, and prints how long validating an
+ * instance of each class took. Run it in a new JVM for each measurement, since validators and
+ * class metadata are cached for the life of the process:
+ *
+ * <pre>
+ * java -cp &lt;test classpath&gt; io.sweers.inspector.ColdStartBenchmark [--reflective]
+ * </pre>
+ *
+ * <p>{@code --reflective} disables {@link Inspector.Builder#generatedGetters}. This needs a JDK,
+ * rather than a JRE, to compile the models.
+ */
+public final class ColdStartBenchmark {
+  static final int CLASSES = 500;
+  static final int GETTERS = 8;
+  private static final String PACKAGE = "benchmark";
+
+  public static void main(String... args) throws Exception {
+    boolean generatedGetters = args.length == 0 || !args[0].equals("--reflective");
+    File root = Files.createTempDirectory("inspector-benchmark").toFile();
+    try {
+      List<File> sources = writeModels(root);
+      compile(sources);
+      try (URLClassLoader loader = new URLClassLoader(new URL[] { root.toURI().toURL() },
+          ColdStartBenchmark.class.getClassLoader())) {
+        long start = System.nanoTime();
+        Inspector inspector = new Inspector.Builder().generatedGetters(generatedGetters)
+            .build();
+        for (int i = 0; i < CLASSES; i++) {
+          Class<?> model = Class.forName(PACKAGE + ".Model" + i, true, loader);
+          validate(inspector, model);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(CLASSES + " classes validated in "
+            + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms (generatedGetters=" + generatedGetters
+            + ")");
+      }
+    } finally {
+      delete(root);
+    }
+  }
+
+  private static <T> void validate(Inspector inspector, Class<T> model) throws Exception {
+    inspector.validator(model)
+        .validate(model.newInstance());
+  }
+
+  /** Writes the model classes, and the annotation and validator they use, to {@code root}. */
+  static List<File> writeModels(File root) throws IOException {
+    File directory = new File(root, PACKAGE);
+    if (!directory.mkdirs()) throw new IOException("Couldn't create " + directory);
+    List<File> sources = new ArrayList<>();
+    sources.add(write(directory, "Nullable", "package " + PACKAGE + ";\n"
+        + "\n"
+        + "import java.lang.annotation.Retention;\n"
+        + "import java.lang.annotation.RetentionPolicy;\n"
+        + "\n"
+        + "@Retention(RetentionPolicy.RUNTIME) public @interface Nullable {\n"
+        + "}\n"));
+    sources.add(write(directory, "NonBlank", "package " + PACKAGE + ";\n"
+        + "\n"
+        + "import io.sweers.inspector.ValidationException;\n"
+        + "import io.sweers.inspector.Validator;\n"
+        + "\n"
+        + "public final class NonBlank extends Validator<String> {\n"
+        + "  @Override public void validate(String value) throws ValidationException {\n"
+        + "    if (value.trim().isEmpty()) throw new ValidationException(\"value is blank\");\n"
+        + "  }\n"
+        + "}\n"));
+    for (int i = 0; i < CLASSES; i++) {
+      sources.add(write(directory, "Model" + i, model(i)));
+    }
+    return sources;
+  }
+
+  /** Returns the source of a model that references two others, so that they form one graph. */
+  private static String model(int index) {
+    int next = (index + 1) % CLASSES;
+    int other = (index * 7 + 3) % CLASSES;
+    return "package " + PACKAGE + ";\n"
+        + "\n"
+        + "import io.sweers.inspector.ValidatedBy;\n"
+        + "import java.util.Arrays;\n"
+        + "import java.util.Collections;\n"
+        + "import java.util.List;\n"
+        + "import java.util.Map;\n"
+        + "\n"
+        + "public class Model" + index + " {\n"
+        + "  public String name() { return \"name\"; }\n"
+        + "  public int count() { return " + index + "; }\n"
+        + "  public long timestamp() { return " + index + "L; }\n"
+        + "  public List<String> tags() { return Arrays.asList(\"a\", \"b\"); }\n"
+        + "  public Map<String, Integer> counts() { return Collections.singletonMap(\"a\", 1); }\n"
+        + "  @ValidatedBy(NonBlank.class) public String title() { return \"title\"; }\n"
+        + "  @Nullable public Model" + next + " next() { return null; }\n"
+        + "  @Nullable public Model" + other + " other() { return null; }\n"
+        + "}\n";
+  }
+
+  private static File write(File directory, String name, String source) throws IOException {
+    File file = new File(directory, name + ".java");
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), Charset.forName("UTF-8"))) {
+      writer.write(source);
+    }
+    return file;
+  }
+
+  private static void compile(List<File> sources) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) throw new IllegalStateException("Run this with a JDK, not a JRE.");
+    List<String> arguments = new ArrayList<>();
+    arguments.add("-classpath");
+    arguments.add(System.getProperty("java.class.path"));
+    for (File source : sources) {
+      arguments.add(source.getPath());
+    }
+    int result = compiler.run(null, null, null, arguments.toArray(new String[arguments.size()]));
+    if (result != 0) throw new IllegalStateException("Compiling the models failed: " + result);
+  }
+
+  /** Deletes {@code file}, and everything in it if it's a directory. */
+  private static void delete(File file) throws IOException {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    if (!file.delete()) throw new IOException("Couldn't delete " + file);
+  }
+
+  private ColdStartBenchmark() {
+  }
+}
@@ -1,5 +1,7 @@
 package io.sweers.inspector;
 
+import io.sweers.inspector.TestModels.NonEmpty;
+import java.util.List;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -106,6 +108,56 @@ public final class CompositeValidatorTest {
     }
   }
 
+  @Test public void nestedComposites() {
+    Validator<String> nonEmpty = new NonEmpty();
+    CompositeValidator<String> nested =
+        CompositeValidator.of(nonEmpty, CompositeValidator.of(nonEmpty, nonEmpty));
+    try {
+      nested.validate("");
+      throw new AssertionError("This should be invalid!");
+    } catch (CompositeValidationException e) {
+      // The nested composite's failures are reported alongside the outer one's.
+      assertThat(e.getExceptions()).hasSize(3);
+      for (ValidationException exception : e.getExceptions()) {
+        assertThat(exception).isNotInstanceOf(CompositeValidationException.class);
+      }
+    }
+    assertThat(CompositeValidator.of(nonEmpty)
+        .nonNullDelegate()).isSameAs(nonEmpty);
+
+    // Nested composites with other policies keep their own exceptions.
+    CompositeValidator<String> upToTwo =
+        CompositeValidator.of(nonEmpty, CompositeValidator.of(nonEmpty, nonEmpty, nonEmpty)
+            .withPolicy(ErrorPolicy.collectUpTo(2)));
+    try {
+      upToTwo.validate("");
+      throw new AssertionError("This should be invalid!");
+    } catch (CompositeValidationException e) {
+      assertThat(e.getExceptions()).hasSize(2);
+      assertThat(((CompositeValidationException) e.getExceptions()
+          .get(1)).getExceptions()).hasSize(2);
+    }
+
+    // Nested composites are only inlined into ones that collect every failure too.
+    CompositeValidator<String> inner = CompositeValidator.of(nonEmpty, nonEmpty);
+    assertThat(CompositeValidator.of(inner)
+        .withPolicy(ErrorPolicy.failFast())
+        .check("")
+        .failures()).hasSize(2);
+    List<ValidationResult> failures = CompositeValidator.of(nonEmpty, inner)
+        .withPolicy(ErrorPolicy.collectUpTo(2))
+        .check("")
+        .failures();
+    assertThat(failures).hasSize(2);
+    assertThat(failures.get(1)
+        .failures()).hasSize(2);
+    assertThat(CompositeValidator.of(nonEmpty, inner)
+        .withPolicy(ErrorPolicy.collectUpTo(2))
+        .withPolicy(ErrorPolicy.collectAll())
+        .check("")
+        .failures()).hasSize(3);
+  }
+
   static class PositiveValidator extends Validator<Integer> {
     @Override public void validate(Integer integer) throws ValidationException {
       if (integer < 0) {
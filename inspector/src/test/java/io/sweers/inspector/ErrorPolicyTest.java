@@ -0,0 +1,86 @@
+package io.sweers.inspector;
+
+import io.sweers.inspector.TestModels.Blank;
+import io.sweers.inspector.TestModels.NonEmpty;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+
+public final class ErrorPolicyTest {
+  @Test public void failFastByDefault() {
+    Inspector inspector = new Inspector.Builder().build();
+    assertThat(inspector.errorPolicy()).isEqualTo(ErrorPolicy.failFast());
+    ValidationException expected = rejection(inspector.validator(Blank.class), new Blank());
+    assertThat(expected).isNotInstanceOf(CompositeValidationException.class);
+    assertThat(expected).hasMessageThat()
+        .isEqualTo("Returned value of a() was null.");
+  }
+
+  @Test public void collectAll() {
+    Inspector collecting = new Inspector.Builder().errorPolicy(ErrorPolicy.collectAll())
+        .build();
+    ValidationException expected = rejection(collecting.validator(Blank.class), new Blank());
+    assertThat(((CompositeValidationException) expected).getExceptions()).hasSize(3);
+    Validator<List<Blank>> list =
+        collecting.validator(Types.newParameterizedType(List.class, Blank.class));
+    assertThat(list.check(Arrays.asList(new Blank(), new Blank()))
+        .failures()).hasSize(2);
+  }
+
+  @Test public void collectUpTo() {
+    Validator<Blank> upToTwo = new Inspector.Builder().errorPolicy(ErrorPolicy.collectUpTo(2))
+        .build()
+        .validator(Blank.class);
+    assertThat(upToTwo.check(new Blank())
+        .failures()).hasSize(2);
+  }
+
+  @Test public void compositeWithPolicy() {
+    Validator<String> nonEmpty = new NonEmpty();
+    Validator<String> failFast = CompositeValidator.of(nonEmpty, nonEmpty)
+        .withPolicy(ErrorPolicy.failFast());
+    assertThat(rejection(failFast, "")).isNotInstanceOf(CompositeValidationException.class);
+  }
+
+  @Test public void compositesKeepCollectingUnlessConfigured() {
+    Validator<String> nonEmpty = new NonEmpty();
+    CompositeValidator<String> composite = CompositeValidator.of(nonEmpty, nonEmpty);
+    assertThat(composite.withPolicyOf(new Inspector.Builder().build())).isSameAs(composite);
+    Validator<String> failFast = composite.withPolicyOf(new Inspector.Builder()
+        .errorPolicy(ErrorPolicy.failFast())
+        .build());
+    assertThat(rejection(failFast, "")).isNotInstanceOf(CompositeValidationException.class);
+  }
+
+  /** Checks both of a pair's halves, as a hand-written validator would. */
+  static final class Pair extends Validator<String[]> {
+    private final ErrorPolicy errorPolicy;
+
+    Pair(ErrorPolicy errorPolicy) {
+      this.errorPolicy = errorPolicy;
+    }
+
+    @Override public void validate(String[] pair) throws ValidationException {
+      List<ValidationException> failures = null;
+      if (pair[0] == null) {
+        failures = errorPolicy.collect(failures, new ValidationException("first is null"));
+      }
+      if (pair[1] == null) {
+        failures = errorPolicy.collect(failures, new ValidationException("second is null"));
+      }
+      errorPolicy.throwIfAny(failures);
+    }
+  }
+
+  @Test public void handWrittenValidators() {
+    String[] blank = new String[2];
+    assertThat(rejection(new Pair(ErrorPolicy.failFast()), blank)).hasMessageThat()
+        .isEqualTo("first is null");
+    ValidationException collected = rejection(new Pair(ErrorPolicy.collectAll()), blank);
+    assertThat(((CompositeValidationException) collected).getExceptions()).hasSize(2);
+    assertThat(new Pair(ErrorPolicy.collectAll()).isValid(new String[] { "a", "b" })).isTrue();
+  }
+}
@@ -0,0 +1,87 @@
+package io.sweers.inspector;
+
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+import static io.sweers.inspector.TestModels.validator;
+
+public final class GettersTest {
+  public static class Throwing {
+    public String value() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  public static class Hiding {
+    String hidden() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  /** Returns true if {@code exception} was thrown by a getter that was called reflectively. */
+  static boolean calledReflectively(Throwable exception) {
+    for (StackTraceElement element : exception.getStackTrace()) {
+      if (element.getClassName()
+          .equals(Getters.class.getName() + "$ReflectiveGetter")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Test public void boundGetters() throws Exception {
+    // Public methods get a class spun by LambdaMetafactory, others a method handle.
+    assertThat(Getters.bound(Throwing.class.getMethod("value"))
+        .getClass()
+        .isSynthetic()).isTrue();
+    Method hidden = Hiding.class.getDeclaredMethod("hidden");
+    hidden.setAccessible(true);
+    assertThat(Getters.bound(hidden)
+        .getClass()
+        .getSimpleName()).isEqualTo("MethodHandleGetter");
+  }
+
+  @Test public void getterExceptionsAreWrapped() {
+    assertGetterExceptionsAreWrapped(validator(Throwing.class), new Throwing(), "value");
+    assertGetterExceptionsAreWrapped(validator(Hiding.class), new Hiding(), "hidden");
+  }
+
+  private static <T> void assertGetterExceptionsAreWrapped(Validator<T> validator,
+      T value,
+      String getter) {
+    // Past the threshold, so that the last calls go through the bound getter.
+    ValidationException e = rejection(validator, value);
+    assertThat(calledReflectively(e.getCause())).isTrue();
+    for (int i = 0; i < Getters.BIND_THRESHOLD * 2; i++) {
+      e = rejection(validator, value);
+      assertThat(e).hasMessageThat()
+          .isEqualTo(getter + " threw an exception when called.");
+      assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+      assertThat(e.getCause()).hasMessageThat()
+          .isEqualTo("boom");
+    }
+    assertThat(calledReflectively(e.getCause())).isFalse();
+  }
+
+  public static class Failing {
+    public String value() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  @Test public void reflectiveGetters() {
+    for (boolean generatedGetters : new boolean[] { false, true }) {
+      Validator<Failing> validator = new Inspector.Builder().generatedGetters(generatedGetters)
+          .build()
+          .validator(Failing.class);
+      ValidationException e = null;
+      for (int i = 0; i < Getters.BIND_THRESHOLD * 2; i++) {
+        e = rejection(validator, new Failing());
+      }
+      // Only generated getters are bound once they're past the threshold.
+      assertThat(calledReflectively(e.getCause())).isEqualTo(!generatedGetters);
+    }
+  }
+}
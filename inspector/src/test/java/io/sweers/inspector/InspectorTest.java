@@ -1,8 +1,19 @@
 package io.sweers.inspector;
 
 import io.sweers.inspector.InspectorTest.SelfValidatingType.NestedInheritedSelfValidating;
+import io.sweers.inspector.TestModels.Data;
+import io.sweers.inspector.TestModels.Generic;
+import io.sweers.inspector.TestModels.Special;
+import io.sweers.inspector.TestModels.Unvalidatable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -33,12 +44,6 @@ public final class InspectorTest {
     }
   }
 
-  public static class Data {
-    public String thing() {
-      return null;
-    }
-  }
-
   @Test public void testSelfValidating() {
     Inspector inspector = new Inspector.Builder()
         .build();
@@ -77,4 +82,129 @@ public final class InspectorTest {
     }
   }
 
+  @Test public void concurrentLookupsCreateOnce() throws InterruptedException {
+    final AtomicInteger creations = new AtomicInteger();
+    final Inspector inspector = new Inspector.Builder()
+        .add(new Validator.Factory() {
+          @Override public @Nullable Validator<?> create(Type type,
+              Set<? extends Annotation> annotations,
+              Inspector inspector) {
+            if (type != Data.class) return null;
+            creations.incrementAndGet();
+            try {
+              Thread.sleep(50);
+            } catch (InterruptedException e) {
+              throw new AssertionError(e);
+            }
+            return inspector.nextValidator(this, type, annotations);
+          }
+        })
+        .build();
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Validator<Data>> results = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          Validator<Data> validator = inspector.validator(Data.class);
+          synchronized (results) {
+            results.add(validator);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(creations.get()).isEqualTo(1);
+    assertThat(results).hasSize(8);
+    for (Validator<Data> validator : results) {
+      assertThat(validator).isSameAs(results.get(0));
+    }
+  }
+
+  @Test public void registeredValidators() {
+    Validator<Data> first = new Validator<Data>() {
+      @Override public void validate(Data data) throws ValidationException {
+      }
+    };
+    Validator<Data> second = new Validator<Data>() {
+      @Override public void validate(Data data) throws ValidationException {
+      }
+    };
+    Validator<int[]> array = new Validator<int[]>() {
+      @Override public void validate(int[] ints) throws ValidationException {
+      }
+    };
+    Validator<List<Data>> list = new Validator<List<Data>>() {
+      @Override public void validate(List<Data> data) throws ValidationException {
+      }
+    };
+    Inspector inspector = new Inspector.Builder()
+        .add(Data.class, first)
+        .add(Data.class, second)
+        .add(Data.class, Special.class, second)
+        .add(int[].class, array)
+        .add(Types.newParameterizedType(List.class, Data.class), list)
+        .build();
+
+    assertThat(inspector.validator(Data.class)).isSameAs(first);
+    assertThat(inspector.validator(Data.class, Special.class)).isSameAs(second);
+    assertThat(inspector.validator(int[].class)).isSameAs(array);
+    assertThat(inspector.validator(Types.arrayOf(int.class))).isSameAs(array);
+    assertThat(inspector.validator(Types.newParameterizedType(List.class, Data.class)))
+        .isSameAs(list);
+    assertThat(inspector.newBuilder()
+        .add(Data.class, second)
+        .build()
+        .validator(Data.class)).isSameAs(first);
+  }
+
+  @Test public void missingValidatorsAreCached() {
+    final AtomicInteger lookups = new AtomicInteger();
+    Inspector inspector = new Inspector.Builder()
+        .add(new Validator.Factory() {
+          @Override public @Nullable Validator<?> create(Type type,
+              Set<? extends Annotation> annotations,
+              Inspector inspector) {
+            lookups.incrementAndGet();
+            return null;
+          }
+        })
+        .build();
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        inspector.validator(Unvalidatable.class);
+        fail("Enums have no validator");
+      } catch (IllegalArgumentException e) {
+        assertThat(e).hasMessageThat().startsWith("No Validator for");
+      }
+    }
+    assertThat(lookups.get()).isEqualTo(1);
+  }
+
+  @Test public void canonicalTypesAreInterned() throws NoSuchMethodException {
+    assertThat(Types.canonicalize(int[].class)).isSameAs(Types.canonicalize(int[].class));
+    assertThat(Types.canonicalize(int[].class)).isEqualTo(Types.arrayOf(int.class));
+
+    Type reflected = Generic.class.getMethod("data").getGenericReturnType();
+    assertThat(reflected).isNotInstanceOf(Types.newParameterizedType(List.class, Data.class)
+        .getClass());
+    assertThat(Types.canonicalize(reflected))
+        .isEqualTo(Types.newParameterizedType(List.class, Data.class));
+
+    assertThat(Types.qualifierAnnotations(Special.class))
+        .isSameAs(Types.qualifierAnnotations(Special.class));
+  }
 }
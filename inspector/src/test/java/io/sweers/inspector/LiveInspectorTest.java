@@ -0,0 +1,77 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LiveInspectorTest {
+  public static class Named {
+    public String name() {
+      return "";
+    }
+  }
+
+  public static class Counted {
+    public int count() {
+      return 1;
+    }
+  }
+
+  private final Validator.Factory nonEmptyStrings = new Validator.Factory() {
+    @Override public @Nullable Validator<?> create(Type type,
+        Set<? extends Annotation> annotations,
+        Inspector inspector) {
+      if (type != String.class || !annotations.isEmpty()) return null;
+      return new Validator<String>() {
+        @Override public void validate(String s) throws ValidationException {
+          if (s.isEmpty()) throw new ValidationException("string is empty");
+        }
+      };
+    }
+  };
+
+  @Test public void reconfigure() throws ValidationException {
+    Inspector inspector = new Inspector.Builder()
+        .add(nonEmptyStrings)
+        .build();
+    LiveInspector live = new LiveInspector(inspector);
+    Validator<Named> named = inspector.validator(Named.class);
+    Validator<Counted> counted = inspector.validator(Counted.class);
+    ValidatorKey<Named> key = inspector.key(Named.class);
+
+    Inspector reconfigured = live.reconfigure(new LiveInspector.Reconfiguration() {
+      @Override public void apply(Inspector.Builder builder) {
+        builder.remove(nonEmptyStrings);
+      }
+    });
+    assertThat(live.get()).isSameAs(reconfigured);
+
+    // Counted doesn't depend on strings, so it's shared.
+    assertThat(reconfigured.validator(Counted.class)).isSameAs(counted);
+    Validator<Named> relaxed = reconfigured.validator(key);
+    assertThat(relaxed).isNotSameAs(named);
+    relaxed.validate(new Named());
+
+    // Validations that are already under way finish on the old graph.
+    try {
+      named.validate(new Named());
+      fail();
+    } catch (ValidationException expected) {
+      assertThat(expected).hasMessageThat()
+          .isEqualTo("string is empty");
+    }
+  }
+
+  @Test public void removeUnknownFactory() {
+    try {
+      new Inspector.Builder().remove(nonEmptyStrings);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package io.sweers.inspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+import static io.sweers.inspector.TestModels.validator;
+import static org.junit.Assert.fail;
+
+public final class SubtypeValidatorTest {
+  public abstract static class Shape {
+    public String name() {
+      return "shape";
+    }
+  }
+
+  public static class Circle extends Shape {
+    public @Nullable Integer radius;
+
+    public Integer radius() {
+      return radius;
+    }
+  }
+
+  public static class Square extends Shape {
+    public Integer side() {
+      return 1;
+    }
+  }
+
+  public static class Drawing {
+    public final List<Shape> shapes = new ArrayList<>();
+
+    public List<Shape> shapes() {
+      return shapes;
+    }
+  }
+
+  @Test public void validateSubtypes() {
+    Inspector inspector = new Inspector.Builder().validateSubtypes()
+        .build();
+    Validator<Drawing> validator = inspector.validator(Drawing.class);
+    Drawing drawing = new Drawing();
+    Circle circle = new Circle();
+    circle.radius = 1;
+    drawing.shapes.add(circle);
+    drawing.shapes.add(new Square());
+    drawing.shapes.add(new Circle());
+    assertThat(rejection(validator, drawing)).hasMessageThat()
+        .isEqualTo("Returned value of radius() was null.");
+    drawing.shapes.remove(2);
+    validator.validate(drawing);
+
+    // Without subtypes, an abstract declared type can't be validated at all.
+    try {
+      validator(Drawing.class);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public interface Named {
+    String name();
+  }
+
+  /** Has more to it than {@link Named}, none of which is validated through it. */
+  public static class Widget implements Named {
+    @Override public String name() {
+      return "widget";
+    }
+
+    public @Nullable String label() {
+      return null;
+    }
+
+    String secret() {
+      throw new AssertionError("Only the interface's accessors should be called");
+    }
+  }
+
+  public static class Panel {
+    final List<Named> children = new ArrayList<>();
+
+    public List<Named> children() {
+      return children;
+    }
+  }
+
+  @Test public void interfacesAreValidatedThroughTheirAccessors() {
+    Inspector inspector = new Inspector.Builder().validateSubtypes()
+        .build();
+    Validator<Panel> validator = inspector.validator(Panel.class);
+    Panel panel = new Panel();
+    panel.children.add(new Widget());
+    panel.children.add(new Named() {
+      @Override public String name() {
+        return null;
+      }
+    });
+    assertThat(rejection(validator, panel)).hasMessageThat()
+        .isEqualTo("Returned value of name() was null.");
+    panel.children.remove(1);
+    validator.validate(panel);
+  }
+}
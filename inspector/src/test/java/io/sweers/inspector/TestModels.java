@@ -0,0 +1,92 @@
+package io.sweers.inspector;
+
+import java.lang.annotation.Retention;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.Assert.fail;
+
+/** Models and validators shared by the tests, and helpers to run them. */
+final class TestModels {
+  private TestModels() {
+  }
+
+  public static class Data {
+    public String thing() {
+      return null;
+    }
+  }
+
+  public static class Generic {
+    public List<Data> data() {
+      return null;
+    }
+  }
+
+  public static class Wrapper {
+    public Data data() {
+      return new Data();
+    }
+  }
+
+  public static class Primitives {
+    public int count() {
+      throw new AssertionError("Not validated, so it shouldn't be called");
+    }
+
+    public @Nullable String name() {
+      throw new AssertionError("Not validated, so it shouldn't be called");
+    }
+  }
+
+  /** Every property is null. */
+  public static class Blank {
+    public String a() {
+      return null;
+    }
+
+    public String b() {
+      return null;
+    }
+
+    public String c() {
+      return null;
+    }
+  }
+
+  public static class NonEmpty extends Validator<String> {
+    @Override public void validate(String s) throws ValidationException {
+      if (s.isEmpty()) throw new ValidationException("string is empty");
+    }
+  }
+
+  public static class Labeled {
+    @ValidatedBy(NonEmpty.class) public String label() {
+      return "";
+    }
+  }
+
+  @Retention(RUNTIME) @ValidationQualifier @interface Special {
+  }
+
+  enum Unvalidatable {
+  }
+
+  /** Returns the validator of {@code type} from a default inspector. */
+  static <T> Validator<T> validator(Class<T> type) {
+    return new Inspector.Builder().build()
+        .validator(type);
+  }
+
+  /** Returns the exception that {@code validator} throws for {@code value}, failing if none. */
+  static <T> ValidationException rejection(Validator<T> validator, T value) {
+    try {
+      validator.validate(value);
+    } catch (ValidationException e) {
+      return e;
+    }
+    fail("No validation failed for " + value);
+    throw new AssertionError();
+  }
+}
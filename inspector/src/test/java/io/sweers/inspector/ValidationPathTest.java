@@ -0,0 +1,140 @@
+package io.sweers.inspector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+import static io.sweers.inspector.TestModels.validator;
+
+public final class ValidationPathTest {
+  public static class Item {
+    final @Nullable String sku;
+
+    Item(@Nullable String sku) {
+      this.sku = sku;
+    }
+
+    public String sku() {
+      return sku;
+    }
+  }
+
+  public static class Order {
+    final List<Item> items = new ArrayList<>();
+    final Map<String, Item> itemsByName = new HashMap<>();
+
+    public List<Item> items() {
+      return items;
+    }
+
+    public Map<String, Item> itemsByName() {
+      return itemsByName;
+    }
+  }
+
+  @Test public void propertyPaths() {
+    Validator<Order> validator = validator(Order.class);
+    Order order = new Order();
+    order.items.add(new Item("a"));
+    order.items.add(new Item(null));
+    ValidationException expected = rejection(validator, order);
+    assertThat(expected.path()).isEqualTo("items[1].sku");
+    assertThat(expected).hasMessageThat()
+        .isEqualTo("Returned value of sku() was null.");
+    assertThat(expected.toString()).endsWith("(at items[1].sku)");
+
+    order.items.clear();
+    order.itemsByName.put("b", new Item(null));
+    assertThat(validator.check(order)
+        .path()).isEqualTo("itemsByName[b].sku");
+    order.itemsByName.clear();
+    order.itemsByName.put("c[0]\\", new Item(null));
+    assertThat(validator.check(order)
+        .path()).isEqualTo("itemsByName[c\\[0\\]\\\\].sku");
+    order.itemsByName.clear();
+    assertThat(validator.check(order)
+        .isValid()).isTrue();
+
+    ValidationException thrown = new ValidationException("Thrown.");
+    assertThat(thrown.prependProperty("sku")
+        .prependIndex(3)
+        .prependProperty("items")).isSameAs(thrown);
+    assertThat(thrown.path()).isEqualTo("items[3].sku");
+  }
+
+  public static class ItemException extends ValidationException {
+    ItemException() {
+      super("Item is invalid.");
+    }
+  }
+
+  @Test public void thrownExceptionsAreRethrown() throws Exception {
+    final ItemException failure = new ItemException();
+    Validator<Order> validator = new Inspector.Builder().add(Item.class, new Validator<Item>() {
+      @Override public void validate(Item item) throws ValidationException {
+        throw failure;
+      }
+    })
+        .build()
+        .validator(Order.class);
+    Order order = new Order();
+    order.items.add(new Item("a"));
+    try {
+      validator.validate(order);
+      throw new AssertionError();
+    } catch (ItemException e) {
+      assertThat(e).isSameAs(failure);
+      assertThat(e.path()).isEqualTo("items[0]");
+    }
+
+    // Paths survive serialization, along with messages that are formatted lazily.
+    ValidationException formatted = ValidationException.format("%s is invalid.", new Object())
+        .prependProperty("a");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(formatted);
+    }
+    ValidationException read;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = (ValidationException) in.readObject();
+    }
+    assertThat(read).hasMessageThat()
+        .isEqualTo(formatted.getMessage());
+    assertThat(read.path()).isEqualTo("a");
+  }
+
+  /** Always throws the same exception, as validators that preallocate theirs do. */
+  public static class SharedFailure extends Validator<Item> {
+    static final ValidationException FAILURE =
+        new ValidationException("Item is invalid.", null, false, false);
+
+    @Override public void validate(Item item) throws ValidationException {
+      throw FAILURE;
+    }
+  }
+
+  @Test public void sharedExceptionsAreLeftAlone() {
+    Validator<Order> validator = new Inspector.Builder().add(Item.class, new SharedFailure())
+        .build()
+        .validator(Order.class);
+    Order order = new Order();
+    order.items.add(new Item("a"));
+    for (int i = 0; i < 2; i++) {
+      ValidationException expected = rejection(validator, order);
+      assertThat(expected).isSameAs(SharedFailure.FAILURE);
+      assertThat(validator.check(order)
+          .path()).isEqualTo("items[0]");
+    }
+    assertThat(SharedFailure.FAILURE.path()).isEmpty();
+  }
+}
@@ -0,0 +1,77 @@
+package io.sweers.inspector;
+
+import io.sweers.inspector.TestModels.NonEmpty;
+import io.sweers.inspector.TestModels.Primitives;
+import io.sweers.inspector.TestModels.Wrapper;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.sweers.inspector.TestModels.rejection;
+
+public final class ValidationResultTest {
+  @Test public void check() {
+    Inspector inspector = new Inspector.Builder().build();
+    Validator<Wrapper> wrapper = inspector.validator(Wrapper.class);
+    ValidationResult result = wrapper.check(new Wrapper());
+    assertThat(result.isValid()).isFalse();
+    assertThat(result.message()).isEqualTo("Returned value of thing() was null.");
+    assertThat(result.toException()).hasMessageThat()
+        .isEqualTo("Returned value of thing() was null.");
+
+    Validator<Primitives> primitives = inspector.validator(Primitives.class);
+    assertThat(primitives.check(new Primitives())).isSameAs(ValidationResult.valid());
+
+    // Exceptions thrown by validators that don't implement check() are kept as-is.
+    Validator<String> nonEmpty = new NonEmpty();
+    ValidationException thrown = nonEmpty.check("")
+        .toException();
+    assertThat(thrown).hasMessageThat()
+        .isEqualTo("string is empty");
+    ValidationResult composite = CompositeValidator.of(nonEmpty, new NonEmpty())
+        .check("");
+    assertThat(composite.failures()).hasSize(2);
+    assertThat(composite.toException()).isInstanceOf(CompositeValidationException.class);
+    assertThat(composite.message()).isEqualTo(composite.toException()
+        .getMessage());
+  }
+
+  @Test public void stacklessExceptions() {
+    Validator<Wrapper> wrapper = new Inspector.Builder().stacklessExceptions()
+        .build()
+        .validator(Wrapper.class);
+    ValidationException expected = rejection(wrapper, new Wrapper());
+    assertThat(expected.getStackTrace()).isEmpty();
+    assertThat(expected).hasMessageThat()
+        .isEqualTo("Returned value of thing() was null.");
+
+    ValidationException formatted = ValidationException.format("%s must be less than %s", "x", 3);
+    assertThat(formatted).hasMessageThat()
+        .isEqualTo("x must be less than 3");
+    assertThat(ValidationResult.invalidFormat("%s is %s", "x")
+        .message()).isEqualTo("x is %s");
+  }
+
+  @Test public void causesCanBeAttachedLater() {
+    Throwable cause = new IllegalStateException();
+    Validator<Wrapper> wrapper = new Inspector.Builder().stacklessExceptions()
+        .build()
+        .validator(Wrapper.class);
+    ValidationException stackless = rejection(wrapper, new Wrapper());
+    ValidationException formatted = ValidationException.format("%s", "x");
+    ValidationException composite = CompositeValidator.of(new NonEmpty(), new NonEmpty())
+        .check("")
+        .toException();
+    for (ValidationException exception : new ValidationException[] {
+        stackless, formatted, composite
+    }) {
+      assertThat(exception.getCause()).isNull();
+      assertThat(exception.initCause(cause)).isSameAs(exception);
+      assertThat(exception.getCause()).isSameAs(cause);
+      try {
+        exception.initCause(cause);
+        throw new AssertionError("Causes can only be set once");
+      } catch (IllegalStateException expected) {
+      }
+    }
+  }
+}
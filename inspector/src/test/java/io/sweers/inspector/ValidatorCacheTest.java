@@ -0,0 +1,298 @@
+package io.sweers.inspector;
+
+import io.sweers.inspector.InspectorTest.SelfValidatingType;
+import io.sweers.inspector.TestModels.Data;
+import io.sweers.inspector.TestModels.Generic;
+import io.sweers.inspector.TestModels.Labeled;
+import io.sweers.inspector.TestModels.NonEmpty;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static junit.framework.TestCase.fail;
+
+public final class ValidatorCacheTest {
+
+  @Test public void preload() {
+    final List<Type> created = Collections.synchronizedList(new ArrayList<Type>());
+    Validator.Factory recordingFactory = new Validator.Factory() {
+      @Override public @Nullable Validator<?> create(Type type,
+          Set<? extends Annotation> annotations,
+          Inspector inspector) {
+        created.add(type);
+        return null;
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (boolean parallel : new boolean[] { false, true }) {
+        created.clear();
+        Inspector.Builder builder = new Inspector.Builder()
+            .add(recordingFactory)
+            .preload(Generic.class, Data.class);
+        if (parallel) builder.preloadExecutor(executor);
+        Inspector inspector = builder.build();
+
+        assertThat(created).containsExactly(Generic.class,
+            Data.class,
+            Types.newParameterizedType(List.class, Data.class),
+            String.class);
+        inspector.validator(Generic.class);
+        inspector.validator(String.class);
+        assertThat(created).hasSize(4);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test public void freeze() {
+    Inspector inspector = new Inspector.Builder()
+        .preload(Generic.class)
+        .build();
+    Validator<Generic> generic = inspector.validator(Generic.class);
+    inspector.freeze();
+
+    assertThat(inspector.validator(Generic.class)).isSameAs(generic);
+    assertThat(inspector.validator(Types.newParameterizedType(List.class, Data.class))).isNotNull();
+    try {
+      inspector.validator(SelfValidatingType.class);
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).hasMessageThat()
+          .contains("Inspector is frozen");
+    }
+  }
+
+  @Test public void childInspectorsShareUnaffectedValidators() {
+    Inspector parent = new Inspector.Builder().build();
+    Validator<Generic> generic = parent.validator(Generic.class);
+    Validator<Data> data = parent.validator(Data.class);
+
+    Validator<Integer> integers = new Validator<Integer>() {
+      @Override public void validate(Integer integer) throws ValidationException {
+      }
+    };
+    Inspector unrelated = parent.newBuilder()
+        .add(Integer.class, integers)
+        .build();
+    assertThat(unrelated.validator(Generic.class)).isSameAs(generic);
+    assertThat(unrelated.validator(Data.class)).isSameAs(data);
+    assertThat(unrelated.validator(Integer.class)).isSameAs(integers);
+
+    // Data depends on String, and Generic on Data, so neither can be shared.
+    Validator<String> strings = new Validator<String>() {
+      @Override public void validate(String string) throws ValidationException {
+      }
+    };
+    Inspector affected = parent.newBuilder()
+        .add(String.class, strings)
+        .build();
+    assertThat(affected.validator(Generic.class)).isNotSameAs(generic);
+    assertThat(affected.validator(Data.class)).isNotSameAs(data);
+    assertThat(affected.validator(String.class)).isSameAs(strings);
+    assertThat(affected.validator(SelfValidatingType.class))
+        .isNotSameAs(parent.validator(SelfValidatingType.class));
+  }
+
+  @Test public void factoryValidatorsAreNotShared() {
+    Validator.Factory longs = new Validator.Factory() {
+      @Override public @Nullable Validator<?> create(Type type,
+          Set<? extends Annotation> annotations,
+          Inspector inspector) {
+        if (type != Long.class) return null;
+        return new Validator<Long>() {
+          @Override public void validate(Long value) throws ValidationException {
+          }
+        };
+      }
+    };
+    Inspector parent = new Inspector.Builder().add(longs)
+        .build();
+    Validator<Long> validator = parent.validator(Long.class);
+    Validator<Data> data = parent.validator(Data.class);
+    Inspector child = parent.newBuilder()
+        .build();
+    // The factory may have kept the parent around, so its validators are created again.
+    assertThat(child.validator(Long.class)).isNotSameAs(validator);
+    assertThat(child.validator(Data.class)).isSameAs(data);
+  }
+
+  @Test public void derivedInspectorsLetGoOfTheirParent() throws Exception {
+    Inspector parent = new Inspector.Builder().build();
+    Validator<Data> data = parent.validator(Data.class);
+    Inspector child = parent.newBuilder()
+        .build();
+    WeakReference<Inspector> reference = new WeakReference<>(parent);
+    parent = null;
+    for (int i = 0; i < 20 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(reference.get()).isNull();
+    // With the parent gone, the child creates its own.
+    assertThat(child.validator(Data.class)).isNotSameAs(data);
+  }
+
+  public static class Employee {
+    public List<Employee> reports() {
+      return Collections.emptyList();
+    }
+  }
+
+  public static class Team {
+    public Employee lead() {
+      return new Employee();
+    }
+
+    public SelfValidatingType charter() {
+      return new SelfValidatingType.NestedInheritedSelfValidating();
+    }
+  }
+
+  @Test public void discardedInspectorsCanBeCollected() throws Exception {
+    // Validators are stored in the classes they validate, which outlive the inspector here.
+    WeakReference<Inspector> recursive =
+        validateAndDiscard(new Inspector.Builder(), Employee.class);
+    WeakReference<Inspector> subtypes =
+        validateAndDiscard(new Inspector.Builder().validateSubtypes(), Team.class);
+    for (int i = 0; i < 20 && (recursive.get() != null || subtypes.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(recursive.get()).isNull();
+    assertThat(subtypes.get()).isNull();
+  }
+
+  @Test public void validatorsOutliveTheirInspector() throws Exception {
+    Validator<Team> validator = new Inspector.Builder().validateSubtypes()
+        .build()
+        .validator(Team.class);
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    // Dispatching on the charter's runtime class still looks its validator up.
+    try {
+      validator.validate(new Team());
+      fail();
+    } catch (ValidationException expected) {
+      assertThat(expected).hasMessageThat()
+          .isEqualTo(SelfValidatingType.VALIDATION_MESSAGE);
+    }
+  }
+
+  private static WeakReference<Inspector> validateAndDiscard(Inspector.Builder builder,
+      Class<?> type) throws Exception {
+    Inspector inspector = builder.build();
+    try {
+      inspector.<Object>validator((Type) type).validate(type.newInstance());
+    } catch (ValidationException ignored) {
+    }
+    return new WeakReference<>(inspector);
+  }
+
+  @Test public void boundedCache() {
+    Type registered = Types.newParameterizedType(List.class, Generic.class);
+    Validator<List<Generic>> list = new Validator<List<Generic>>() {
+      @Override public void validate(List<Generic> generics) throws ValidationException {
+      }
+    };
+    Inspector inspector = new Inspector.Builder()
+        .add(registered, list)
+        .maximumCacheSize(2)
+        .build();
+    assertThat(inspector.validator(registered)).isSameAs(list);
+
+    Type[] types = {
+        Types.newParameterizedType(List.class, String.class),
+        Types.newParameterizedType(Set.class, String.class),
+        Types.newParameterizedType(List.class, Data.class),
+        Types.newParameterizedType(Set.class, Data.class),
+    };
+    for (Type type : types) {
+      inspector.validator(type);
+    }
+    assertThat(inspector.evictionCount()).isEqualTo(2);
+    assertThat(inspector.validator(registered)).isSameAs(list);
+
+    // Recently used validators get a second chance.
+    Validator<?> recent = inspector.validator(types[3]);
+    inspector.validator(types[0]);
+    assertThat(inspector.validator(types[3])).isSameAs(recent);
+    assertThat(inspector.evictionCount()).isEqualTo(3);
+  }
+
+  @Test public void validatedClassesCanBeUnloaded() throws Exception {
+    Inspector inspector = new Inspector.Builder().build();
+    WeakReference<ClassLoader> data = validateInIsolatedLoader(inspector, Data.class,
+        "thing() was null", TestModels.class.getName(), Data.class.getName());
+    // Along with the validators they name, which the inspector instantiated.
+    WeakReference<ClassLoader> labeled = validateInIsolatedLoader(inspector, Labeled.class,
+        "string is empty", TestModels.class.getName(), Labeled.class.getName(),
+        NonEmpty.class.getName());
+    for (int i = 0; i < 20 && (data.get() != null || labeled.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(data.get()).isNull();
+    assertThat(labeled.get()).isNull();
+    // Keep the inspector reachable until the loaders are collected.
+    assertThat(inspector.validator(Data.class)).isNotNull();
+  }
+
+  private static WeakReference<ClassLoader> validateInIsolatedLoader(Inspector inspector,
+      Class<?> type,
+      String message,
+      String... isolatedNames) throws Exception {
+    ClassLoader loader = new IsolatingClassLoader(isolatedNames);
+    Class<?> isolated = loader.loadClass(type.getName());
+    assertThat(isolated).isNotSameAs(type);
+    try {
+      inspector.<Object>validator((Type) isolated).validate(isolated.newInstance());
+      fail("No validation was run");
+    } catch (ValidationException e) {
+      assertThat(e).hasMessageThat().contains(message);
+    }
+    return new WeakReference<>(loader);
+  }
+
+  /** Loads its own copies of some classes, so that the copies can be unloaded. */
+  static final class IsolatingClassLoader extends ClassLoader {
+    private final List<String> names;
+
+    IsolatingClassLoader(String... names) {
+      super(IsolatingClassLoader.class.getClassLoader());
+      this.names = Arrays.asList(names);
+    }
+
+    @Override protected synchronized Class<?> loadClass(String name, boolean resolve)
+        throws ClassNotFoundException {
+      if (!names.contains(name)) return super.loadClass(name, resolve);
+      Class<?> loaded = findLoadedClass(name);
+      if (loaded != null) return loaded;
+      try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read; (read = in.read(buffer)) != -1; ) {
+          bytes.write(buffer, 0, read);
+        }
+        return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package io.sweers.inspector;
+
+import io.sweers.inspector.TestModels.Data;
+import io.sweers.inspector.TestModels.Special;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public final class ValidatorKeyTest {
+
+  @Test public void validatorKeys() {
+    Inspector inspector = new Inspector.Builder().build();
+    ValidatorKey<Data> key = inspector.key(Data.class);
+    assertThat(inspector.key(Data.class)).isSameAs(key);
+    assertThat(inspector.key(Data.class, Special.class)).isNotSameAs(key);
+
+    Validator<Data> validator = inspector.validator(key);
+    assertThat(validator).isSameAs(inspector.validator(Data.class));
+    assertThat(inspector.validator(key)).isSameAs(validator);
+
+    // Keys work across inspectors, derived from each other or not.
+    Inspector child = inspector.newBuilder().build();
+    assertThat(child.key(Data.class)).isSameAs(key);
+    assertThat(child.validator(key)).isSameAs(child.validator(Data.class));
+    Inspector unrelated = new Inspector.Builder().build();
+    assertThat(unrelated.validator(key)).isSameAs(unrelated.validator(Data.class));
+  }
+
+  @Test public void evictedValidatorsLoseTheirSlots() throws Exception {
+    Inspector inspector = new Inspector.Builder().maximumCacheSize(1)
+        .build();
+    Type list = Types.newParameterizedType(List.class, Data.class);
+    ValidatorKey<List<Data>> key = inspector.key(list);
+    WeakReference<Validator<List<Data>>> evicted =
+        new WeakReference<>(inspector.validator(key));
+    assertThat(inspector.validator(key)).isSameAs(evicted.get());
+
+    // The first eviction gives the recently used list a second chance. The next one takes it.
+    inspector.validator(Types.newParameterizedType(Set.class, Data.class));
+    inspector.validator(Types.newParameterizedType(Set.class, String.class));
+    assertThat(inspector.evictionCount()).isEqualTo(2);
+    for (int i = 0; i < 20 && evicted.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(evicted.get()).isNull();
+
+    // The key is forgotten, but still works.
+    assertThat(inspector.key(list)).isNotSameAs(key);
+    assertThat(inspector.validator(key)).isSameAs(inspector.validator(list));
+  }
+}
@@ -0,0 +1,89 @@
+package io.sweers.inspector;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+public final class WarmUpManifestTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Executor directExecutor = new Executor() {
+    @Override public void execute(Runnable command) {
+      command.run();
+    }
+  };
+
+  @Test public void recordAndReplay() throws IOException {
+    Validator<String> qualified = new Validator<String>() {
+      @Override public void validate(String s) throws ValidationException {
+      }
+    };
+    Inspector recording = new Inspector.Builder()
+        .add(String.class, Qualifier.class, qualified)
+        .recordWarmUpManifest()
+        .build();
+    recording.validator(Model.class);
+    recording.validator(Types.newParameterizedType(Map.class,
+        String.class,
+        Types.newParameterizedType(List.class, Types.subtypeOf(Model.class))));
+    recording.validator(Model[][].class);
+    recording.validator(String.class, Qualifier.class);
+    File manifest = temporaryFolder.newFile();
+    recording.writeWarmUpManifest(manifest);
+
+    final List<Object> created = new ArrayList<>();
+    new Inspector.Builder()
+        .add(new Validator.Factory() {
+          @Override public @Nullable Validator<?> create(Type type,
+              Set<? extends Annotation> annotations,
+              Inspector inspector) {
+            created.add(Inspector.cacheKey(type, annotations));
+            return null;
+          }
+        })
+        .add(String.class, Qualifier.class, qualified)
+        .preloadExecutor(directExecutor)
+        .preloadWarmUpManifest(manifest)
+        .build();
+
+    // Nested types are resolved too, but only the roots need to be in the manifest.
+    assertThat(WarmUpManifest.read(manifest, getClass().getClassLoader())).hasSize(4);
+    assertThat(created).containsAllOf(Model.class,
+        Types.newParameterizedType(Map.class,
+            String.class,
+            Types.newParameterizedType(List.class, Types.subtypeOf(Model.class))),
+        Types.arrayOf(Types.arrayOf(Model.class)),
+        Inspector.cacheKey(String.class, Types.qualifierAnnotations(Qualifier.class)));
+  }
+
+  @Test public void missingManifestIsIgnored() {
+    Inspector inspector = new Inspector.Builder()
+        .preloadExecutor(directExecutor)
+        .preloadWarmUpManifest(new File(temporaryFolder.getRoot(), "missing"))
+        .build();
+    assertThat(inspector.validator(Model.class)).isNotNull();
+  }
+
+  public static class Model {
+    public @Nullable String name() {
+      return null;
+    }
+  }
+
+  @Retention(RUNTIME) @ValidationQualifier @interface Qualifier {
+  }
+}